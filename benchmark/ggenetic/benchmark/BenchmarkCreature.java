@@ -0,0 +1,84 @@
+package ggenetic.benchmark;
+
+import java.util.SplittableRandom;
+
+import ggenetic.creature.Creature;
+import ggenetic.genes.Genome;
+import ggenetic.genes.primitive.DoubleGene;
+
+/**
+ * creature used by the benchmarks, it has a single chromosome of gene objects
+ * holding real values from -1 to 1 and its fitness is the sum of the squares
+ * of the values.
+ */
+public class BenchmarkCreature extends Creature<BenchmarkCreature, DoubleGene> {
+
+	public BenchmarkCreature(int length, SplittableRandom random) {
+		super(new DoubleGene(0, -1, 1), random, 1, length);
+	}
+
+	public BenchmarkCreature(Genome<DoubleGene> genome) {
+		super(genome);
+	}
+
+	public Genome<DoubleGene> getGenome() {
+		return genes;
+	}
+
+	/**
+	 * sum of the squares of the values, lower is better
+	 * 
+	 * @return fitness of the creature
+	 */
+	public double fitness() {
+		double results = 0;
+		for (int i = 0; i < genes.getChromosome(0).size(); i++) {
+			double value = genes.getChromosome(0).getGene(i).getValue();
+			results += value * value;
+		}
+		return results;
+	}
+
+	/**
+	 * the creature with the lower fitness wins
+	 * 
+	 * @param other
+	 *            creature to compete against
+	 * @return 0 if this creature wins, 1 if the other wins
+	 */
+	public int compete(BenchmarkCreature other) {
+		return fitness() <= other.fitness() ? 0 : 1;
+	}
+
+	@Override
+	public BenchmarkCreature asexuallyReproduce(double mutationRate, double mutationSeverity) {
+		return new BenchmarkCreature(genes.copyWithMutation(mutationRate, mutationSeverity));
+	}
+
+	@Override
+	public BenchmarkCreature asexuallyReproduce(double mutationRate, double mutationSeverity,
+			SplittableRandom random) {
+		return new BenchmarkCreature(genes.copyWithMutation(mutationRate, mutationSeverity, random));
+	}
+
+	@Override
+	public BenchmarkCreature breed(BenchmarkCreature other, double mutationRate, double mutationSeverity) {
+		return new BenchmarkCreature(genes.breedWithMutation(other.genes, mutationRate, mutationSeverity));
+	}
+
+	@Override
+	public BenchmarkCreature breed(BenchmarkCreature other, double mutationRate, double mutationSeverity,
+			SplittableRandom random) {
+		return new BenchmarkCreature(genes.breedWithMutation(other.genes, mutationRate, mutationSeverity, random));
+	}
+
+	@Override
+	public BenchmarkCreature randomize() {
+		return randomize(new SplittableRandom());
+	}
+
+	@Override
+	public BenchmarkCreature randomize(SplittableRandom random) {
+		return new BenchmarkCreature(genes.getChromosome(0).size(), random);
+	}
+}
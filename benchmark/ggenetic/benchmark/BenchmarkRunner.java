@@ -0,0 +1,30 @@
+package ggenetic.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * runs the benchmarks with the gc profiler so the allocations per operation
+ * (gc.alloc.rate.norm) are reported next to the times. Any of the normal JMH
+ * command line options can be given, for example a regex to pick benchmarks
+ * or -p populationSize=1000 to fix a parameter.
+ */
+public class BenchmarkRunner {
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+
+		OptionsBuilder options = new OptionsBuilder();
+		options.parent(commandLine);
+		options.addProfiler(GCProfiler.class);
+
+		// run everything in this package if nothing was picked
+		if (commandLine.getIncludes().isEmpty())
+			options.include("ggenetic\\.benchmark\\..*");
+
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,152 @@
+package ggenetic.benchmark;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ggenetic.genes.Chromosome;
+import ggenetic.genes.Gene;
+import ggenetic.genes.primitive.BitChromosome;
+import ggenetic.genes.primitive.BitGene;
+import ggenetic.genes.primitive.DoubleChromosome;
+import ggenetic.genes.primitive.DoubleGene;
+import ggenetic.genes.primitive.IntChromosome;
+import ggenetic.genes.primitive.IntGene;
+
+/**
+ * measures crossover and dense mutation on the primitive chromosomes with the
+ * scalar kernels and with the vector API kernels, each in its own fork, and
+ * the same operations on plain chromosomes holding a gene object per value as
+ * the baseline. The vector fork needs a JDK with jdk.incubator.vector and the
+ * classes from the vector source folder on the class path, otherwise it
+ * quietly runs the scalar kernels too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public abstract class KernelBenchmark {
+
+	@Param({ "1000", "100000" })
+	public int chromosomeLength;
+
+	// high enough that mutation doesn't skip between loci
+	@Param({ "0.1" })
+	public double mutationRate;
+
+	private SplittableRandom random;
+
+	private Chromosome<DoubleGene> doubles1;
+
+	private Chromosome<DoubleGene> doubles2;
+
+	private Chromosome<IntGene> ints1;
+
+	private Chromosome<IntGene> ints2;
+
+	private Chromosome<BitGene> bits1;
+
+	private Chromosome<BitGene> bits2;
+
+	private Chromosome<DoubleGene> mutatedDoubles;
+
+	private Chromosome<BitGene> mutatedBits;
+
+	@Setup(Level.Trial)
+	public void createChromosomes() {
+		random = new SplittableRandom(0);
+		doubles1 = store(new DoubleChromosome(chromosomeLength, -1, 1, random));
+		doubles2 = store(new DoubleChromosome(chromosomeLength, -1, 1, random));
+		ints1 = store(new IntChromosome(chromosomeLength, 0, 100, random));
+		ints2 = store(new IntChromosome(chromosomeLength, 0, 100, random));
+		bits1 = store(new BitChromosome(chromosomeLength, random));
+		bits2 = store(new BitChromosome(chromosomeLength, random));
+	}
+
+	/**
+	 * gives the chromosome the benchmark runs on, by default the primitive
+	 * chromosome itself
+	 */
+	protected <G extends Gene<G>> Chromosome<G> store(Chromosome<G> chromosome) {
+		return chromosome;
+	}
+
+	@Setup(Level.Iteration)
+	public void copyChromosomes() {
+		// mutate works in place, each iteration keeps mutating its own copy
+		mutatedDoubles = doubles1.copy();
+		mutatedBits = bits1.copy();
+	}
+
+	@Benchmark
+	public Chromosome<?> doubleCrossover() {
+		return doubles1.breed(doubles2, 0, 0, random);
+	}
+
+	@Benchmark
+	public Chromosome<?> intCrossover() {
+		return ints1.breed(ints2, 0, 0, random);
+	}
+
+	@Benchmark
+	public Chromosome<?> bitCrossover() {
+		return bits1.breed(bits2, 0, 0, random);
+	}
+
+	@Benchmark
+	public Chromosome<?> doubleMutate() {
+		mutatedDoubles.mutate(mutationRate, .5, random);
+		return mutatedDoubles;
+	}
+
+	@Benchmark
+	public Chromosome<?> bitMutate() {
+		mutatedBits.mutate(mutationRate, 0, random);
+		return mutatedBits;
+	}
+
+	/**
+	 * the baseline, plain chromosomes looping over an ArrayList of gene
+	 * objects with the same values as the primitive chromosomes
+	 */
+	@Fork(1)
+	public static class Genes extends KernelBenchmark {
+
+		@Override
+		protected <G extends Gene<G>> Chromosome<G> store(Chromosome<G> chromosome) {
+			ArrayList<G> genes = new ArrayList<>(chromosome.size());
+			for (int i = 0; i < chromosome.size(); i++) {
+				genes.add(chromosome.getGene(i).copy());
+			}
+			return new Chromosome<G>(genes);
+		}
+	}
+
+	/**
+	 * the kernels with plain loops
+	 */
+	@Fork(value = 1, jvmArgsAppend = "-Dggenetic.vector=false")
+	public static class Scalar extends KernelBenchmark {
+	}
+
+	/**
+	 * the kernels with the vector API
+	 */
+	@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+	public static class Vector extends KernelBenchmark {
+	}
+}
@@ -0,0 +1,85 @@
+package ggenetic.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ggenetic.genes.Chromosome;
+import ggenetic.genes.Genome;
+import ggenetic.genes.primitive.DoubleGene;
+
+/**
+ * measures the genetic operators on a single chromosome and genome
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OperatorBenchmark {
+
+	@Param({ "30", "1000", "10000" })
+	public int chromosomeLength;
+
+	@Param({ "0.001", "0.01", "0.1" })
+	public double mutationRate;
+
+	@Param({ "0" })
+	public double mutationSeverity;
+
+	private SplittableRandom random;
+
+	private Genome<DoubleGene> genome1;
+
+	private Genome<DoubleGene> genome2;
+
+	private Chromosome<DoubleGene> chromosome;
+
+	@Setup(Level.Trial)
+	public void createGenomes() {
+		random = new SplittableRandom(0);
+		genome1 = new BenchmarkCreature(chromosomeLength, random).getGenome();
+		genome2 = new BenchmarkCreature(chromosomeLength, random).getGenome();
+	}
+
+	@Setup(Level.Iteration)
+	public void copyChromosome() {
+		// mutate works in place, each iteration starts from a fresh copy and
+		// keeps mutating it so no copy is timed with the mutation
+		chromosome = genome1.getChromosome(0).copy();
+	}
+
+	@Benchmark
+	public Chromosome<DoubleGene> chromosomeMutate() {
+		chromosome.mutate(mutationRate, mutationSeverity, random);
+		return chromosome;
+	}
+
+	@Benchmark
+	public Chromosome<DoubleGene> chromosomeBreed() {
+		return genome1.getChromosome(0).breed(genome2.getChromosome(0), mutationRate, mutationSeverity, random);
+	}
+
+	@Benchmark
+	public Genome<DoubleGene> genomeCopyWithMutation() {
+		return genome1.copyWithMutation(mutationRate, mutationSeverity, random);
+	}
+
+	@Benchmark
+	public Genome<DoubleGene> genomeBreedWithMutation() {
+		return genome1.breedWithMutation(genome2, mutationRate, mutationSeverity, random);
+	}
+}
@@ -0,0 +1,147 @@
+package ggenetic.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ggenetic.creature.Population;
+import ggenetic.genes.primitive.DoubleGene;
+
+/**
+ * measures the population operations and a whole generation, half of the
+ * population is replaced each generation. Evaluating and the tournament don't
+ * depend on the mutation settings so they are only run over the population
+ * and chromosome sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PopulationBenchmark {
+
+	/**
+	 * a population for the operations that don't make children
+	 */
+	@State(Scope.Thread)
+	public static class Evaluated {
+
+		@Param({ "100", "1000", "10000" })
+		public int populationSize;
+
+		@Param({ "30", "1000" })
+		public int chromosomeLength;
+
+		Population<BenchmarkCreature, DoubleGene> population;
+
+		@Setup(Level.Trial)
+		public void createPopulation() {
+			population = PopulationBenchmark.createPopulation(populationSize, chromosomeLength, 0, true);
+		}
+	}
+
+	/**
+	 * a population for the operations that make children
+	 */
+	@State(Scope.Thread)
+	public static class Evolving {
+
+		@Param({ "100", "1000", "10000" })
+		public int populationSize;
+
+		@Param({ "30", "1000" })
+		public int chromosomeLength;
+
+		@Param({ "0.001", "0.01", "0.1" })
+		public double mutationRate;
+
+		@Param({ "true" })
+		public boolean breeding;
+
+		Population<BenchmarkCreature, DoubleGene> population;
+
+		@Setup(Level.Trial)
+		public void createPopulation() {
+			population = PopulationBenchmark.createPopulation(populationSize, chromosomeLength, mutationRate,
+					breeding);
+		}
+	}
+
+	/**
+	 * a population whose current creatures have always been evaluated, culling
+	 * needs fitness values for the current creatures so they are computed
+	 * before every call. Setting up per call adds a little to the time JMH
+	 * reports, which is small next to culling and breeding half of the
+	 * population, but the allocations it reports include the evaluation, take
+	 * away computeFitnessScores's to get killAndRepopulate's own.
+	 */
+	@State(Scope.Thread)
+	public static class Scored extends Evolving {
+
+		@Setup(Level.Invocation)
+		public void computeFitness() {
+			population.computeFitnessScores(BenchmarkCreature::fitness);
+		}
+	}
+
+	private static Population<BenchmarkCreature, DoubleGene> createPopulation(int populationSize,
+			int chromosomeLength, double mutationRate, boolean breeding) {
+		Population<BenchmarkCreature, DoubleGene> population = new Population<>();
+		population.setSeed(0);
+		population.setMutationRate(mutationRate);
+		if (breeding)
+			population.setBreedingPopulation();
+		else
+			population.setAsexualPopulation();
+		population.populate(populationSize, new BenchmarkCreature(chromosomeLength, new SplittableRandom(0)));
+		return population;
+	}
+
+	@Benchmark
+	public Population<BenchmarkCreature, DoubleGene> computeFitnessValues(Evaluated state) {
+		state.population.computeFitnessValues(creature -> creature.fitness());
+		return state.population;
+	}
+
+	@Benchmark
+	public Population<BenchmarkCreature, DoubleGene> computeFitnessScores(Evaluated state) {
+		state.population.computeFitnessScores(BenchmarkCreature::fitness);
+		return state.population;
+	}
+
+	@Benchmark
+	public BenchmarkCreature getBestCreatureByCompetition(Evaluated state) {
+		return state.population.getBestCreatureByCompetition(BenchmarkCreature::compete);
+	}
+
+	@Benchmark
+	public Population<BenchmarkCreature, DoubleGene> killAndRepopulate(Scored state) {
+		state.population.killAndRepopulate(state.populationSize / 2);
+		return state.population;
+	}
+
+	@Benchmark
+	public Population<BenchmarkCreature, DoubleGene> competeAndRepopulate(Evolving state) {
+		state.population.competeAndRepopulate(state.populationSize / 2, BenchmarkCreature::compete);
+		return state.population;
+	}
+
+	@Benchmark
+	public Population<BenchmarkCreature, DoubleGene> generation(Evolving state) {
+		state.population.computeFitnessScores(BenchmarkCreature::fitness);
+		state.population.killAndRepopulate(state.populationSize / 2);
+		return state.population;
+	}
+}
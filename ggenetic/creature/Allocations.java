@@ -0,0 +1,39 @@
+package ggenetic.creature;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * reads how many bytes the current thread has allocated, this needs a JVM
+ * that supports thread allocation counting like HotSpot.
+ */
+final class Allocations {
+
+	private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+	private Allocations() {}
+
+	/**
+	 * gets the total number of bytes the current thread has allocated
+	 * 
+	 * @return allocated bytes or -1 if the JVM can't tell
+	 */
+	static long current() {
+		if (THREADS == null)
+			return -1;
+		return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static com.sun.management.ThreadMXBean threads() {
+		try {
+			java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			if (threads instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean results = (com.sun.management.ThreadMXBean) threads;
+				if (results.isThreadAllocatedMemorySupported() && results.isThreadAllocatedMemoryEnabled())
+					return results;
+			}
+		} catch (LinkageError | SecurityException e) {
+			// not available on this JVM
+		}
+		return null;
+	}
+}
@@ -0,0 +1,30 @@
+package ggenetic.creature;
+
+import java.util.List;
+
+/**
+ * computes the fitness values of a batch of creatures at once, this lets a
+ * fitness function set things up once for many creatures, like reusing
+ * scratch buffers or a simulator.
+ *
+ * @param <C>
+ *            type of creature
+ * @see Population#computeFitnessScores(BatchFitnessFunction)
+ */
+@FunctionalInterface
+public interface BatchFitnessFunction<C> {
+
+	/**
+	 * computes the fitness value of every creature in the batch, the value of
+	 * creature i goes in results[offset + i]. Lower values are considered to
+	 * be more fit.
+	 * 
+	 * @param batch
+	 *            creatures to evaluate
+	 * @param results
+	 *            array to put the fitness values in
+	 * @param offset
+	 *            where the value of the first creature goes in the results
+	 */
+	void evaluate(List<C> batch, double[] results, int offset);
+}
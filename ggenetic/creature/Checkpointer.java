@@ -0,0 +1,343 @@
+package ggenetic.creature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import ggenetic.genes.Gene;
+import ggenetic.genes.Genome;
+import ggenetic.genes.GenomeCodec;
+
+/**
+ * saves snapshots of a population to a file so a long run can be resumed if
+ * it dies. Taking a checkpoint only takes a snapshot of the population, the
+ * snapshot is written on a background thread. If a new checkpoint is taken
+ * before the last one has been written the older one is skipped.
+ *
+ * Snapshots are written to a temporary file next to the checkpoint file,
+ * which then replaces the checkpoint file, so the checkpoint file always
+ * holds a complete snapshot. The files are written and read through the
+ * channel instead of being memory mapped, a mapped buffer can't be released
+ * until it is garbage collected and on some systems, like Windows, a mapped
+ * file can't be replaced. The file holds a header with the population's
+ * settings and random seed, the fitness values if there are any and then
+ * each genome as written by the {@link GenomeCodec}.
+ *
+ * Genomes are decoded with the codec they are read with, creatures with
+ * primitive, chunked or packed chromosomes need a codec made with a
+ * prototype genome to get the same types of chromosomes back.
+ *
+ * @param <C>
+ *            type of creature
+ * @param <G>
+ *            type of gene
+ */
+public class Checkpointer<C extends Creature<C, G>, G extends Gene<G>> implements Closeable {
+
+	// "GGEN" in ascii
+	private static final int MAGIC = 0x4747454e;
+
+	private static final int VERSION = 1;
+
+	private static final int BREEDING = 1;
+
+	private static final int HAS_FITNESS = 2;
+
+	// magic, version, flags, mutation rate, mutation severity, seed and size
+	private static final int HEADER_BYTES = 3 * Integer.BYTES + 2 * Double.BYTES + Long.BYTES + Integer.BYTES;
+
+	// bytes gathered before each write to the file
+	private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+	private final Path file;
+
+	private final GenomeCodec<G> codec;
+
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "checkpoint-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// newest snapshot that hasn't been written yet
+	private final AtomicReference<PopulationSnapshot<C, G>> pending = new AtomicReference<>();
+
+	// the first write that failed since the caller was last told about one
+	private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+	private int interval = 1;
+
+	/**
+	 * creates a checkpointer that saves to the given file
+	 *
+	 * @param file
+	 *            file to save the snapshots to
+	 * @param codec
+	 *            codec for the creatures' genomes
+	 */
+	public Checkpointer(Path file, GenomeCodec<G> codec) {
+		this.file = file;
+		this.codec = codec;
+	}
+
+	/**
+	 * sets how many generations there are between checkpoints when using
+	 * {@link #checkpoint(Population, int)}
+	 *
+	 * @param interval
+	 *            generations between checkpoints
+	 */
+	public void setInterval(int interval) {
+		if (interval <= 0)
+			throw new IllegalArgumentException("Checkpoint interval must be positive (" + interval + ")");
+
+		this.interval = interval;
+	}
+
+	/**
+	 * takes a checkpoint if the generation is a multiple of the interval, this
+	 * is meant to be called once every generation
+	 *
+	 * @param population
+	 *            population to save
+	 * @param generation
+	 *            the current generation
+	 * @return if a checkpoint was taken
+	 */
+	public boolean checkpoint(Population<C, G> population, int generation) {
+		if (generation % interval != 0)
+			return false;
+
+		checkpoint(population);
+		return true;
+	}
+
+	/**
+	 * takes a snapshot of the population and saves it in the background
+	 *
+	 * @param population
+	 *            population to save
+	 * @see Population#snapshot()
+	 */
+	public void checkpoint(Population<C, G> population) {
+		// only start a write if there wasn't already one waiting, otherwise
+		// that write will pick up this snapshot instead
+		if (pending.getAndSet(population.snapshot()) == null)
+			writer.execute(this::writePending);
+	}
+
+	/**
+	 * waits for every checkpoint taken so far to be written
+	 *
+	 * @throws IOException
+	 *             if any write failed since the last time a failure was
+	 *             thrown, later failures are added to it as suppressed
+	 */
+	public void await() throws IOException {
+		try {
+			writer.submit(() -> {}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for checkpoints to be written", e);
+		} catch (ExecutionException e) {
+			throw new IOException(e.getCause());
+		}
+
+		throwFailure();
+	}
+
+	/**
+	 * writes any checkpoint still waiting and stops the background thread
+	 *
+	 * @throws IOException
+	 *             if any write failed since the last time a failure was
+	 *             thrown
+	 */
+	@Override
+	public void close() throws IOException {
+		writer.shutdown();
+		try {
+			writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for checkpoints to be written", e);
+		}
+
+		throwFailure();
+	}
+
+	/**
+	 * throws the failure the caller hasn't seen yet if there is one, a
+	 * failure is only thrown once
+	 */
+	private void throwFailure() throws IOException {
+		IOException results = failure.getAndSet(null);
+		if (results != null)
+			throw results;
+	}
+
+	private void writePending() {
+		PopulationSnapshot<C, G> snapshot = pending.getAndSet(null);
+		if (snapshot == null)
+			return;
+
+		try {
+			write(snapshot, file, codec);
+		} catch (IOException e) {
+			// a later success doesn't undo a lost checkpoint, keep the first
+			// failure until it has been thrown
+			if (!failure.compareAndSet(null, e))
+				failure.get().addSuppressed(e);
+		}
+	}
+
+	/**
+	 * writes the snapshot to the file on the calling thread
+	 *
+	 * @param snapshot
+	 *            snapshot to write
+	 * @param file
+	 *            file to write to, it is replaced once the snapshot is written
+	 * @param codec
+	 *            codec for the creatures' genomes
+	 * @throws IOException
+	 *             if the snapshot can't be written
+	 */
+	public static <C extends Creature<C, G>, G extends Gene<G>> void write(PopulationSnapshot<C, G> snapshot,
+			Path file, GenomeCodec<G> codec) throws IOException {
+		List<C> creatures = snapshot.getCreatures();
+
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+
+			int flags = (snapshot.isBreeding() ? BREEDING : 0) | (snapshot.hasFitness() ? HAS_FITNESS : 0);
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putInt(flags);
+			buffer.putDouble(snapshot.getMutationRate());
+			buffer.putDouble(snapshot.getMutationSeverity());
+			buffer.putLong(snapshot.getSeed());
+			buffer.putInt(creatures.size());
+
+			if (snapshot.hasFitness()) {
+				for (int i = 0; i < creatures.size(); i++) {
+					buffer = reserve(channel, buffer, Double.BYTES);
+					buffer.putDouble(snapshot.getFitness(i));
+				}
+			}
+
+			for (C creature : creatures) {
+				Genome<G> genome = creature.getGenome();
+				buffer = reserve(channel, buffer, codec.encodedSize(genome));
+				codec.encode(genome, buffer);
+			}
+
+			flush(channel, buffer);
+			channel.force(true);
+		}
+
+		// swap the new snapshot in so the file is never half written
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * makes sure the buffer has room for the given number of bytes, writing
+	 * out what is in it first if it doesn't. A buffer too small for the bytes
+	 * even when empty is replaced with a bigger one.
+	 */
+	private static ByteBuffer reserve(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+		if (buffer.remaining() >= bytes)
+			return buffer;
+
+		flush(channel, buffer);
+		return buffer.capacity() >= bytes ? buffer : ByteBuffer.allocate(bytes);
+	}
+
+	/**
+	 * writes everything in the buffer to the channel and empties it
+	 */
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * reads a snapshot from a checkpoint file, the file is read into memory
+	 * with one read and the genomes are decoded from there
+	 *
+	 * @param file
+	 *            checkpoint file to read
+	 * @param codec
+	 *            codec for the creatures' genomes
+	 * @param factory
+	 *            makes a creature out of a decoded genome
+	 * @return the snapshot in the file
+	 * @throws IOException
+	 *             if the file can't be read or isn't a valid checkpoint
+	 */
+	public static <C extends Creature<C, G>, G extends Gene<G>> PopulationSnapshot<C, G> read(Path file,
+			GenomeCodec<G> codec, Function<Genome<G>, C> factory) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long length = channel.size();
+			if (length > Integer.MAX_VALUE)
+				throw new IOException(file + " is too large to be a checkpoint (" + length + " bytes)");
+
+			ByteBuffer buffer = ByteBuffer.allocate((int) length);
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) < 0)
+					throw new IOException(file + " ended early");
+			}
+			buffer.flip();
+
+			if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC)
+				throw new IOException(file + " is not a checkpoint file");
+			int version = buffer.getInt();
+			if (version != VERSION)
+				throw new IOException("Unsupported checkpoint version " + version);
+
+			int flags = buffer.getInt();
+			double mutationRate = buffer.getDouble();
+			double mutationSeverity = buffer.getDouble();
+			long seed = buffer.getLong();
+			int size = buffer.getInt();
+			if (size < 0 || size > buffer.remaining())
+				throw new IOException("Invalid population size in checkpoint (" + size + ")");
+
+			double[] fitness = null;
+			if ((flags & HAS_FITNESS) != 0) {
+				fitness = new double[size];
+				buffer.asDoubleBuffer().get(fitness);
+				buffer.position(buffer.position() + Double.BYTES * size);
+			}
+
+			List<C> creatures = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				creatures.add(factory.apply(codec.decode(buffer)));
+			}
+
+			return new PopulationSnapshot<>(creatures, fitness, (flags & BREEDING) != 0, mutationRate,
+					mutationSeverity, seed);
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException(file + " is not a valid checkpoint", e);
+		}
+	}
+}
@@ -2,10 +2,13 @@ package ggenetic.creature;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.SplittableRandom;
 
 import ggenetic.genes.Chromosome;
+import ggenetic.genes.Fingerprints;
 import ggenetic.genes.Gene;
 import ggenetic.genes.Genome;
+import ggenetic.random.ThreadRandom;
 
 public abstract class Creature<C extends Creature<C, G>, G extends Gene<G>> {
 
@@ -46,6 +49,24 @@ public abstract class Creature<C extends Creature<C, G>, G extends Gene<G>> {
 	 *            how many genes are in each chromosome
 	 */
 	public Creature(G seedGene, int chromosomes, int... genesInChromosomes) {
+		this(seedGene, ThreadRandom.current(), chromosomes, genesInChromosomes);
+	}
+
+	/**
+	 * creates a creature with a randomly generated genome using the given
+	 * random number generator
+	 * 
+	 * @param seedGene
+	 *            gene so other genes can be created
+	 * @param random
+	 *            random number generator to use
+	 * @param chromosomes
+	 *            how many chromosomes the creature will have
+	 * @param genesInChromosomes
+	 *            how many genes are in each chromosome
+	 * @see #Creature(Gene, int, int...)
+	 */
+	public Creature(G seedGene, SplittableRandom random, int chromosomes, int... genesInChromosomes) {
 		// check if invalild number of arguments were given for genes in
 		// chromosomes
 		if (genesInChromosomes.length != 1 && genesInChromosomes.length != chromosomes)
@@ -62,7 +83,7 @@ public abstract class Creature<C extends Creature<C, G>, G extends Gene<G>> {
 		// fill each chromosome with the appropriate number of genes
 		ArrayList<Chromosome<G>> chromes = new ArrayList<>();
 		for (int i = 0; i < chromosomes; i++) {
-			chromes.add(new Chromosome<G>(seedGene, genesInChromosomes[i]));
+			chromes.add(new Chromosome<G>(seedGene, genesInChromosomes[i], random));
 		}
 
 		// set the genes of the creature
@@ -80,6 +101,24 @@ public abstract class Creature<C extends Creature<C, G>, G extends Gene<G>> {
 	 */
 	public abstract C asexuallyReproduce(double mutationRate, double mutationSeverity);
 
+	/**
+	 * reproduces asexually using the given random number generator, creatures
+	 * should override this so their reproduction can be reproduced from a
+	 * seed, by default this just calls
+	 * {@link #asexuallyReproduce(double, double)}
+	 * 
+	 * @param mutationRate
+	 *            rate for mutations
+	 * @param mutationSeverity
+	 *            how severe the mutations will be
+	 * @param random
+	 *            random number generator to use
+	 * @return the results of the reproduction
+	 */
+	public C asexuallyReproduce(double mutationRate, double mutationSeverity, SplittableRandom random) {
+		return asexuallyReproduce(mutationRate, mutationSeverity);
+	}
+
 	/**
 	 * reproduces sexually with another creature and the given mutation rate and
 	 * mutation severity.
@@ -94,6 +133,72 @@ public abstract class Creature<C extends Creature<C, G>, G extends Gene<G>> {
 	 */
 	public abstract C breed(C other, double mutationRate, double mutationSeverity);
 
+	/**
+	 * reproduces sexually with another creature using the given random number
+	 * generator, creatures should override this so their reproduction can be
+	 * reproduced from a seed, by default this just calls
+	 * {@link #breed(Creature, double, double)}
+	 * 
+	 * @param other
+	 *            creature to breed with
+	 * @param mutationRate
+	 *            rate for mutations
+	 * @param mutationSeverity
+	 *            how severe the mutations will be
+	 * @param random
+	 *            random number generator to use
+	 * @return the results of the reproduction
+	 */
+	public C breed(C other, double mutationRate, double mutationSeverity, SplittableRandom random) {
+		return breed(other, mutationRate, mutationSeverity);
+	}
+
+	/**
+	 * reproduces asexually by overwriting the genome of the target creature
+	 * in place, this is used by populations that recycle their creatures. By
+	 * default it copies the genome the same way
+	 * {@link Genome#copyWithMutation(double, double, SplittableRandom)} does,
+	 * creatures that reproduce some other way or that keep anything other than
+	 * their genome must override this.
+	 * 
+	 * @param target
+	 *            creature to overwrite
+	 * @param mutationRate
+	 *            rate for mutations
+	 * @param mutationSeverity
+	 *            how severe the mutations will be
+	 * @param random
+	 *            random number generator to use
+	 */
+	public void asexuallyReproduceInto(C target, double mutationRate, double mutationSeverity,
+			SplittableRandom random) {
+		genes.copyWithMutationInto(target.genes, mutationRate, mutationSeverity, random);
+	}
+
+	/**
+	 * breeds with another creature by overwriting the genome of the target
+	 * creature in place, this is used by populations that recycle their
+	 * creatures. By default it breeds the genomes the same way
+	 * {@link Genome#breedWithMutation(Genome, double, double, SplittableRandom)}
+	 * does, creatures that breed some other way or that keep anything other
+	 * than their genome must override this.
+	 * 
+	 * @param other
+	 *            creature to breed with
+	 * @param target
+	 *            creature to overwrite
+	 * @param mutationRate
+	 *            rate for mutations
+	 * @param mutationSeverity
+	 *            how severe the mutations will be
+	 * @param random
+	 *            random number generator to use
+	 */
+	public void breedInto(C other, C target, double mutationRate, double mutationSeverity,
+			SplittableRandom random) {
+		genes.breedWithMutationInto(other.genes, target.genes, mutationRate, mutationSeverity, random);
+	}
+
 	/**
 	 * creates a random creature with the statistics of the current creature
 	 * 
@@ -101,16 +206,45 @@ public abstract class Creature<C extends Creature<C, G>, G extends Gene<G>> {
 	 */
 	public abstract C randomize();
 
+	/**
+	 * creates a random creature with the statistics of the current creature
+	 * using the given random number generator, by default this just calls
+	 * {@link #randomize()}
+	 * 
+	 * @param random
+	 *            random number generator to use
+	 * @return a random creature
+	 */
+	public C randomize(SplittableRandom random) {
+		return randomize();
+	}
+
+	/**
+	 * gets the genome of the creature, changing it changes the creature
+	 */
+	public Genome<G> getGenome() {
+		return genes;
+	}
+
+	/**
+	 * gives a 64 bit fingerprint of the creature's genome, creatures with
+	 * equal genomes have the same fingerprint so it can be used to find
+	 * duplicates or as a key for caching
+	 * 
+	 * @return fingerprint of the genome
+	 * @see Genome#fingerprint()
+	 */
+	public long fingerprint() {
+		return genes == null ? 0 : genes.fingerprint();
+	}
+
 	public String toString() {
 		return genes.toString();
 	}
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((genes == null) ? 0 : genes.hashCode());
-		return result;
+		return Fingerprints.hash(fingerprint());
 	}
 
 	@Override
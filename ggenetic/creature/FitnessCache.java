@@ -0,0 +1,155 @@
+package ggenetic.creature;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ggenetic.genes.Gene;
+import ggenetic.genes.Genome;
+
+/**
+ * remembers the fitness values of genomes that have already been evaluated so
+ * creatures that survive a generation, or children that come out the same as
+ * a parent, don't have to be evaluated again. Genomes are looked up by their
+ * fingerprint so the cache doesn't hold on to them. Two different genomes
+ * only share a fingerprint with a chance of about one in 2^64 as long as
+ * their genes override {@link Gene#fingerprint()} to use all 64 bits, a gene
+ * that falls back on its hash code can give two genomes the same fingerprint
+ * and so the wrong fitness value. When the cache
+ * is full the genome that was used the longest time ago is forgotten. A cache
+ * should only ever be used with one fitness function, and the fitness
+ * function must only depend on the genome of the creature.
+ *
+ * @param <G>
+ *            type of gene in the genomes
+ */
+public class FitnessCache<G extends Gene<G>> {
+
+	private final int maximumSize;
+
+	private final LinkedHashMap<Long, Double> values;
+
+	private long hits = 0;
+
+	private long misses = 0;
+
+	/**
+	 * creates a cache that holds at most the given number of fitness values
+	 * 
+	 * @param maximumSize
+	 *            how many fitness values can be kept
+	 */
+	public FitnessCache(int maximumSize) {
+		if (maximumSize <= 0)
+			throw new IllegalArgumentException("Cache size must be positive (" + maximumSize + ")");
+
+		this.maximumSize = maximumSize;
+
+		// keep the entries in access order so the eldest is the least
+		// recently used
+		values = new LinkedHashMap<Long, Double>(16, .75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Double> eldest) {
+				return size() > FitnessCache.this.maximumSize;
+			}
+		};
+	}
+
+	/**
+	 * gets the fitness value of the genome if it is in the cache, this counts
+	 * as a hit or a miss
+	 * 
+	 * @param genome
+	 *            genome to look up
+	 * @return the fitness value or null if it isn't in the cache
+	 */
+	public Double get(Genome<G> genome) {
+		return get(genome.fingerprint());
+	}
+
+	/**
+	 * gets the fitness value of the genome with the given fingerprint if it is
+	 * in the cache, this counts as a hit or a miss
+	 * 
+	 * @param fingerprint
+	 *            fingerprint of the genome to look up
+	 * @return the fitness value or null if it isn't in the cache
+	 * @see Genome#fingerprint()
+	 */
+	public synchronized Double get(long fingerprint) {
+		Double results = values.get(fingerprint);
+		if (results == null)
+			misses++;
+		else
+			hits++;
+		return results;
+	}
+
+	/**
+	 * puts the fitness value of the genome into the cache
+	 * 
+	 * @param genome
+	 *            genome that was evaluated
+	 * @param fitness
+	 *            fitness value of the genome
+	 */
+	public void put(Genome<G> genome, double fitness) {
+		put(genome.fingerprint(), fitness);
+	}
+
+	/**
+	 * puts the fitness value of the genome with the given fingerprint into
+	 * the cache
+	 * 
+	 * @param fingerprint
+	 *            fingerprint of the genome that was evaluated
+	 * @param fitness
+	 *            fitness value of the genome
+	 */
+	public synchronized void put(long fingerprint, double fitness) {
+		values.put(fingerprint, fitness);
+	}
+
+	public synchronized int size() {
+		return values.size();
+	}
+
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * gets the fraction of look ups that were found in the cache
+	 * 
+	 * @return hit rate from 0 to 1, or 0 if nothing has been looked up
+	 */
+	public synchronized double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * resets the hit and miss counts without clearing the cache
+	 */
+	public synchronized void resetStatistics() {
+		hits = 0;
+		misses = 0;
+	}
+
+	/**
+	 * forgets all of the fitness values and resets the statistics
+	 */
+	public synchronized void clear() {
+		values.clear();
+		resetStatistics();
+	}
+}
@@ -0,0 +1,19 @@
+package ggenetic.creature;
+
+/**
+ * gets told about each generation of a population once it is finished, a
+ * generation finishes each time the population is culled and repopulated.
+ * 
+ * @see Population#addGenerationListener(GenerationListener)
+ */
+@FunctionalInterface
+public interface GenerationListener {
+
+	/**
+	 * called on the thread running the population after each generation
+	 * 
+	 * @param stats
+	 *            measurements of the generation
+	 */
+	void generationFinished(GenerationStats stats);
+}
@@ -0,0 +1,180 @@
+package ggenetic.creature;
+
+/**
+ * measurements of one generation of a population. The time of a generation
+ * is split into evaluating fitness values, selecting which creatures survive
+ * (ranking the fitness values or running competitions), culling the rest and
+ * making the children that replace them.
+ */
+public final class GenerationStats {
+
+	private final long generation;
+
+	private final int populationSize;
+
+	private final long evaluationNanos;
+
+	private final long selectionNanos;
+
+	private final long cullNanos;
+
+	private final long reproductionNanos;
+
+	private final int evaluations;
+
+	private final int cacheLookups;
+
+	private final int cacheHits;
+
+	private final long allocatedBytes;
+
+	private final double bestFitness;
+
+	private final double meanFitness;
+
+	private final double fitnessStandardDeviation;
+
+	GenerationStats(long generation, int populationSize, long evaluationNanos, long selectionNanos, long cullNanos,
+			long reproductionNanos, int evaluations, int cacheLookups, int cacheHits, long allocatedBytes,
+			double[] fitness) {
+		this.generation = generation;
+		this.populationSize = populationSize;
+		this.evaluationNanos = evaluationNanos;
+		this.selectionNanos = selectionNanos;
+		this.cullNanos = cullNanos;
+		this.reproductionNanos = reproductionNanos;
+		this.evaluations = evaluations;
+		this.cacheLookups = cacheLookups;
+		this.cacheHits = cacheHits;
+		this.allocatedBytes = allocatedBytes;
+
+		// summarize the fitness values in one pass
+		double best = Double.NaN;
+		double mean = 0;
+		double squares = 0;
+		for (int i = 0; i < fitness.length; i++) {
+			double value = fitness[i];
+			if (i == 0 || Double.compare(value, best) < 0)
+				best = value;
+			double delta = value - mean;
+			mean += delta / (i + 1);
+			squares += delta * (value - mean);
+		}
+		bestFitness = best;
+		meanFitness = fitness.length == 0 ? Double.NaN : mean;
+		fitnessStandardDeviation = fitness.length == 0 ? Double.NaN : Math.sqrt(squares / fitness.length);
+	}
+
+	/**
+	 * gets which generation this is, the first generation of a population is
+	 * generation 1
+	 * 
+	 * @return generation number
+	 */
+	public long getGeneration() {
+		return generation;
+	}
+
+	public int getPopulationSize() {
+		return populationSize;
+	}
+
+	public long getEvaluationNanos() {
+		return evaluationNanos;
+	}
+
+	public long getSelectionNanos() {
+		return selectionNanos;
+	}
+
+	public long getCullNanos() {
+		return cullNanos;
+	}
+
+	public long getReproductionNanos() {
+		return reproductionNanos;
+	}
+
+	public long getTotalNanos() {
+		return evaluationNanos + selectionNanos + cullNanos + reproductionNanos;
+	}
+
+	/**
+	 * gets how many times the fitness function was called, creatures found in
+	 * the fitness cache are not counted
+	 * 
+	 * @return number of fitness evaluations
+	 */
+	public int getEvaluations() {
+		return evaluations;
+	}
+
+	/**
+	 * gets how many fitness evaluations were done per second of evaluation
+	 * time
+	 * 
+	 * @return evaluations per second
+	 */
+	public double getEvaluationsPerSecond() {
+		return evaluationNanos == 0 ? Double.NaN : evaluations * 1e9 / evaluationNanos;
+	}
+
+	public int getCacheLookups() {
+		return cacheLookups;
+	}
+
+	public int getCacheHits() {
+		return cacheHits;
+	}
+
+	/**
+	 * gets the fraction of fitness cache lookups that were hits this
+	 * generation
+	 * 
+	 * @return hit rate or NaN if there were no lookups
+	 */
+	public double getCacheHitRate() {
+		return cacheLookups == 0 ? Double.NaN : (double) cacheHits / cacheLookups;
+	}
+
+	/**
+	 * gets how many bytes the population's work allocated during the
+	 * generation, both on the thread calling the population and on the
+	 * population's executor. Anything the caller does between the steps isn't
+	 * counted.
+	 * 
+	 * @return allocated bytes or -1 if they couldn't be measured, either
+	 *         because the JVM can't count allocations or because part of the
+	 *         generation ran before there were any listeners
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 * gets the best fitness value of the creatures evaluated this generation,
+	 * the fitness values are all NaN if the creatures weren't evaluated this
+	 * generation, like when only competitions were run
+	 * 
+	 * @return best fitness value or NaN
+	 */
+	public double getBestFitness() {
+		return bestFitness;
+	}
+
+	public double getMeanFitness() {
+		return meanFitness;
+	}
+
+	public double getFitnessStandardDeviation() {
+		return fitnessStandardDeviation;
+	}
+
+	public String toString() {
+		return "Generation " + generation + ": " + getTotalNanos() / 1000 + "us (evaluation "
+				+ evaluationNanos / 1000 + "us, selection " + selectionNanos / 1000 + "us, cull " + cullNanos / 1000
+				+ "us, reproduction " + reproductionNanos / 1000 + "us), " + evaluations + " evaluations, "
+				+ allocatedBytes + " bytes allocated, fitness best " + bestFitness + " mean " + meanFitness
+				+ " stddev " + fitnessStandardDeviation;
+	}
+}
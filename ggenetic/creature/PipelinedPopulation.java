@@ -0,0 +1,324 @@
+package ggenetic.creature;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.ToDoubleFunction;
+
+import ggenetic.genes.Gene;
+
+/**
+ * a population that evaluates its creatures on an executor while it keeps
+ * breeding. Each child is handed to the executor as soon as it is made and
+ * its fitness comes back through a {@link CompletableFuture}, so slow fitness
+ * functions run while the rest of the children are bred. A generation can
+ * start selecting as soon as all but {@link #setMaxOutstanding(int)} of the
+ * children have their fitness, the rest join the population when they
+ * finish. Creatures still being evaluated are never culled and never bred
+ * from.
+ *
+ * If the fitness function throws, the creature stays in the population with
+ * the worst possible fitness, {@link Double#POSITIVE_INFINITY}, so it is the
+ * first to be culled, and the exception is rethrown from the call that took
+ * in its score. The population stays whole and can keep being used.
+ *
+ * As scores are taken in the order they finish, the population does not
+ * evolve the same way every time even with a seed unless the maximum
+ * outstanding is 0.
+ *
+ * @param <C>
+ *            type of creature
+ * @param <G>
+ *            type of gene
+ */
+public class PipelinedPopulation<C extends Creature<C, G>, G extends Gene<G>> {
+
+	private final ToDoubleFunction<C> fitnessFunction;
+
+	private final Executor executor;
+
+	// creatures with fitness values in the front of the arrays, the arrays
+	// have room for the whole population
+	private Object[] creatures = new Object[0];
+
+	private double[] fitness = new double[0];
+
+	private int scored = 0;
+
+	// creatures being evaluated
+	private int outstanding = 0;
+
+	// scores in the order they finish
+	private final BlockingQueue<Score<C>> arrivals = new LinkedBlockingQueue<>();
+
+	private int maxOutstanding = 0;
+
+	private boolean isBreedingPopulation = false;
+
+	private double mutationRate = 0;
+
+	private double mutationSeverity = 0;
+
+	private SplittableRandom random = new SplittableRandom();
+
+	/**
+	 * creates a population that evaluates its creatures with the fitness
+	 * function on the executor
+	 *
+	 * @param fitnessFunction
+	 *            function to compute the fitness of a creature, lower is
+	 *            better, it must be safe to call from multiple threads
+	 * @param executor
+	 *            executor to evaluate creatures on
+	 */
+	public PipelinedPopulation(ToDoubleFunction<C> fitnessFunction, Executor executor) {
+		this.fitnessFunction = fitnessFunction;
+		this.executor = executor;
+	}
+
+	public void setBreedingPopulation() {
+		isBreedingPopulation = true;
+	}
+
+	public void setAsexualPopulation() {
+		isBreedingPopulation = false;
+	}
+
+	public void setMutationRate(double mutationRate) {
+		this.mutationRate = mutationRate;
+	}
+
+	public void setMutationSeverity(double mutationSeverity) {
+		this.mutationSeverity = mutationSeverity;
+	}
+
+	public void setSeed(long seed) {
+		random = new SplittableRandom(seed);
+	}
+
+	/**
+	 * sets how many creatures can still be being evaluated when a generation
+	 * starts selecting, with 0 every generation waits for all of its
+	 * children. Higher values hide more of the time spent waiting on slow
+	 * evaluations.
+	 *
+	 * @param maxOutstanding
+	 *            creatures that can still be evaluating
+	 */
+	public void setMaxOutstanding(int maxOutstanding) {
+		if (maxOutstanding < 0)
+			throw new IllegalArgumentException("Max outstanding must not be negative (" + maxOutstanding + ")");
+
+		this.maxOutstanding = maxOutstanding;
+	}
+
+	/**
+	 * fills the population with random creatures and starts evaluating them
+	 *
+	 * @param populationSize
+	 *            number of creatures
+	 * @param seed
+	 *            creature to make random creatures from
+	 */
+	public void populate(int populationSize, C seed) {
+		creatures = Arrays.copyOf(creatures, scored + outstanding + populationSize);
+		fitness = Arrays.copyOf(fitness, creatures.length);
+
+		for (int i = 0; i < populationSize; i++) {
+			evaluate(seed.randomize(random));
+		}
+	}
+
+	/**
+	 * runs one generation, this waits until no more than the maximum
+	 * outstanding creatures are being evaluated, culls the least fit of the
+	 * evaluated creatures and breeds the rest to replace them. The children
+	 * start being evaluated as they are made.
+	 *
+	 * @param numberToRemove
+	 *            how many creatures to cull
+	 * @throws RuntimeException
+	 *             if the fitness function threw for a creature, nothing is
+	 *             culled or bred in that case
+	 */
+	public void killAndRepopulate(int numberToRemove) {
+		if (numberToRemove < 0 || creatures.length - maxOutstanding - numberToRemove < 2)
+			throw new IllegalArgumentException("Invalid number of creatures to remove (" + numberToRemove
+					+ ") for population of size " + creatures.length + " with " + maxOutstanding + " outstanding");
+
+		awaitScores(maxOutstanding);
+		cull(numberToRemove);
+		repopulate(numberToRemove);
+	}
+
+	/**
+	 * runs the given number of generations
+	 *
+	 * @param generations
+	 *            how many generations to run
+	 * @param numberToRemove
+	 *            how many creatures to cull each generation
+	 */
+	public void evolve(int generations, int numberToRemove) {
+		for (int i = 0; i < generations; i++) {
+			killAndRepopulate(numberToRemove);
+		}
+	}
+
+	/**
+	 * waits for every creature to finish being evaluated
+	 *
+	 * @throws RuntimeException
+	 *             if the fitness function threw for a creature
+	 */
+	public void awaitAll() {
+		awaitScores(0);
+	}
+
+	/**
+	 * gets how many creatures are still being evaluated
+	 *
+	 * @return number of creatures being evaluated
+	 */
+	public int getOutstanding() {
+		return outstanding;
+	}
+
+	/**
+	 * gets the best creature of the ones that have been evaluated
+	 *
+	 * @return the best creature
+	 */
+	public C getBestCreature() {
+		return creature(best());
+	}
+
+	/**
+	 * gets the best fitness of the creatures that have been evaluated
+	 *
+	 * @return the best fitness
+	 */
+	public double getBestFitness() {
+		return fitness[best()];
+	}
+
+	private int best() {
+		if (scored == 0)
+			throw new IllegalStateException("No creatures have been evaluated yet!");
+
+		return Ranking.best(Arrays.copyOf(fitness, scored));
+	}
+
+	/**
+	 * starts evaluating a creature, its score is added to the arrivals when it
+	 * is done
+	 */
+	private void evaluate(C creature) {
+		outstanding++;
+		CompletableFuture.supplyAsync(() -> fitnessFunction.applyAsDouble(creature), executor)
+				.whenComplete((value, failure) -> arrivals.add(new Score<>(creature, value, failure)));
+	}
+
+	/**
+	 * takes in scores as they arrive until no more than the given number of
+	 * creatures are still being evaluated
+	 */
+	private void awaitScores(int remaining) {
+		while (outstanding > remaining) {
+			Score<C> score;
+			try {
+				score = arrivals.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while waiting for fitness values", e);
+			}
+			outstanding--;
+
+			// a creature that couldn't be evaluated is kept as the worst so
+			// the population doesn't shrink
+			creatures[scored] = score.creature;
+			fitness[scored] = score.failure == null ? score.value : Double.POSITIVE_INFINITY;
+			scored++;
+
+			// rethrow anything that went wrong in the fitness function
+			if (score.failure != null) {
+				Throwable cause = score.failure instanceof CompletionException && score.failure.getCause() != null
+						? score.failure.getCause()
+						: score.failure;
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				throw new RuntimeException(cause);
+			}
+		}
+	}
+
+	/**
+	 * removes the least fit of the evaluated creatures keeping the rest in
+	 * the order they were in
+	 */
+	private void cull(int numberToRemove) {
+		int survivors = scored - numberToRemove;
+		int[] ranking = Ranking.identity(scored);
+		Ranking.select(ranking, fitness, survivors);
+
+		// every survivor moves to the same or an earlier slot so they can be
+		// packed in place
+		Arrays.sort(ranking, 0, survivors);
+		for (int i = 0; i < survivors; i++) {
+			creatures[i] = creatures[ranking[i]];
+			fitness[i] = fitness[ranking[i]];
+		}
+		Arrays.fill(creatures, survivors, scored, null);
+		scored = survivors;
+	}
+
+	/**
+	 * breeds the evaluated creatures, sending each child off to be evaluated
+	 * as soon as it is made
+	 */
+	private void repopulate(int count) {
+		int parents = scored;
+		for (int i = 0; i < count; i++) {
+			C child;
+			if (isBreedingPopulation) {
+				int first, second;
+				do {
+					first = random.nextInt(parents);
+					second = random.nextInt(parents);
+				} while (first == second);
+
+				child = creature(first).breed(creature(second), mutationRate, mutationSeverity, random);
+			} else {
+				child = creature(random.nextInt(parents)).asexuallyReproduce(mutationRate, mutationSeverity, random);
+			}
+			evaluate(child);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private C creature(int i) {
+		return (C) creatures[i];
+	}
+
+	/**
+	 * the result of evaluating a creature
+	 */
+	private static final class Score<C> {
+
+		private final C creature;
+
+		private final double value;
+
+		private final Throwable failure;
+
+		private Score(C creature, Double value, Throwable failure) {
+			this.creature = creature;
+			this.value = value == null ? Double.NaN : value;
+			this.failure = failure;
+		}
+	}
+}
@@ -1,18 +1,37 @@
 package ggenetic.creature;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
-import gcore.tuples.Pair;
 import ggenetic.genes.Gene;
 
 public class Population<C extends Creature<C, G>, G extends Gene<G>> {
 	private ArrayList<C> creatures = new ArrayList<>();
 
-	private ArrayList<Pair<C, Double>> fitness = new ArrayList<>();
+	// creatures in the order their fitness values were computed
+	private ArrayList<C> evaluated = new ArrayList<>();
+
+	// fitness value of each evaluated creature, lower is better
+	private double[] fitness = new double[0];
+
+	// indices into the evaluated creatures, only ordered from best to worst
+	// fitness when ranked is set
+	private int[] ranking = new int[0];
+
+	private boolean ranked = false;
+
+	// index of the evaluated creature with the best fitness
+	private int best = -1;
 
 	private boolean isBreedingPopulation = false;
 
@@ -20,6 +39,62 @@ public class Population<C extends Creature<C, G>, G extends Gene<G>> {
 
 	private double mutationSeverity = 0;
 
+	private ExecutorService executor = null;
+
+	private int chunkSize = 0;
+
+	private int batchSize = 64;
+
+	// the whole state of the population's random numbers between operations,
+	// each operation starts a generator from it, see nextRandom
+	private long randomSeed = new SplittableRandom().nextLong();
+
+	private FitnessCache<G> cache = null;
+
+	// culled creatures waiting to be overwritten by children, only used when
+	// recycling
+	private boolean recycling = false;
+
+	private final ArrayList<C> pool = new ArrayList<>();
+
+	private final ArrayList<GenerationListener> listeners = new ArrayList<>();
+
+	// measurements of the generation in progress, they are only reported if
+	// there are listeners
+	private long generation = 0;
+
+	private long evaluationNanos = 0;
+
+	private long selectionNanos = 0;
+
+	private long cullNanos = 0;
+
+	private long reproductionNanos = 0;
+
+	private int evaluations = 0;
+
+	private int cacheLookups = 0;
+
+	private int cacheHits = 0;
+
+	// bytes allocated by the population's own work this generation, counted
+	// on the thread running each step and on the executor's threads. It is
+	// only complete if every step was measured
+	private long allocatedBytes = 0;
+
+	private boolean allocationsMeasured = true;
+
+	private final AtomicLong workerAllocatedBytes = new AtomicLong();
+
+	// thread running the step being measured, or -1 if nothing is being
+	// measured, tasks on other threads add what they allocate to the workers'
+	// count
+	private volatile long measuredThread = -1;
+
+	// if the creatures were evaluated this generation, otherwise the fitness
+	// values are from an older generation
+	private boolean evaluatedThisGeneration = false;
+
 	public Population() {}
 
 	public void setBreedingPopulation() {
@@ -38,64 +113,311 @@ public class Population<C extends Creature<C, G>, G extends Gene<G>> {
 		this.mutationSeverity = mutationSeverity;
 	}
 
+	/**
+	 * sets the executor that fitness values will be computed on and that
+	 * children will be made on, the work will be split into chunks and each
+	 * chunk will be run as a separate task. Any executor can be used, for
+	 * example a ForkJoinPool, a fixed thread pool or a virtual thread per task
+	 * executor. Giving null will do everything on the calling thread.
+	 * 
+	 * @param executor
+	 *            executor to run the work on, or null for serial work
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * sets how many creatures will be handed to a single task when work is
+	 * split up for the executor, giving 0 will pick a chunk size based on the
+	 * number of available processors.
+	 * 
+	 * @param chunkSize
+	 *            number of creatures per task, or 0 for automatic
+	 */
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize < 0)
+			throw new IllegalArgumentException("Chunk size must not be negative (" + chunkSize + ")");
+
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * sets how many creatures are given to a batch fitness function at once
+	 * 
+	 * @param batchSize
+	 *            number of creatures per batch
+	 * @see #computeFitnessScores(BatchFitnessFunction)
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize <= 0)
+			throw new IllegalArgumentException("Batch size must be positive (" + batchSize + ")");
+
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * sets the cache that fitness values are looked up in before they are
+	 * computed, creatures whose genome is in the cache are not evaluated
+	 * again. The cache must only be used with one fitness function. Giving
+	 * null will evaluate every creature every time.
+	 * 
+	 * @param cache
+	 *            cache to use or null for no cache
+	 */
+	public void setFitnessCache(FitnessCache<G> cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * sets if culled creatures should be reused for the children that replace
+	 * them, their genomes are overwritten in place so making children doesn't
+	 * allocate new genomes. This gives the same results as not recycling.
+	 * 
+	 * The genes must support {@link ggenetic.genes.Gene#copyFrom(Gene)} and
+	 * the creatures must support
+	 * {@link Creature#breedInto(Creature, Creature, double, double, SplittableRandom)}
+	 * or
+	 * {@link Creature#asexuallyReproduceInto(Creature, double, double, SplittableRandom)}.
+	 * While recycling a creature got from the population, like the best
+	 * creature, can be overwritten after the next cull, copy it to keep it.
+	 * 
+	 * @param recycling
+	 *            if creatures should be recycled
+	 */
+	public void setRecycling(boolean recycling) {
+		this.recycling = recycling;
+		if (!recycling)
+			pool.clear();
+	}
+
+	/**
+	 * seeds the random number generator that is used for populating,
+	 * selection and reproduction, with the same seed and the same sequence of
+	 * calls the population will evolve the same way every time as long as the
+	 * creatures and genes use the random number generators they are given.
+	 * 
+	 * @param seed
+	 *            seed for the random number generator
+	 */
+	public void setSeed(long seed) {
+		randomSeed = seed;
+	}
+
+	/**
+	 * gives the random number generator for one operation of the population,
+	 * it is started from the population's seed and the next seed is drawn
+	 * from it. This keeps the state between operations down to one long that
+	 * snapshots can save without changing the random numbers that come after.
+	 * 
+	 * @return random number generator for the operation
+	 */
+	private SplittableRandom nextRandom() {
+		SplittableRandom results = new SplittableRandom(randomSeed);
+		randomSeed = results.nextLong();
+		return results;
+	}
+
+	/**
+	 * adds a listener that is given the measurements of each generation once
+	 * it finishes, allocations are only measured while there are listeners so
+	 * the generation a listener is added in reports its allocations as
+	 * unknown.
+	 * 
+	 * @param listener
+	 *            listener to add
+	 * @see GenerationStats
+	 */
+	public void addGenerationListener(GenerationListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeGenerationListener(GenerationListener listener) {
+		listeners.remove(listener);
+	}
+
 	public void populate(int populationSize, C seed) {
 		// add the required number of creatures to the creatures array list
+		SplittableRandom random = nextRandom();
 		for (int i = 0; i < populationSize; i++) {
-			creatures.add(seed.randomize());
+			creatures.add(seed.randomize(random));
 		}
 	}
 
+	/**
+	 * computes the fitness value of every creature, lower values are
+	 * considered to be more fit.
+	 * 
+	 * @param fitnessFunction
+	 *            function to compute the fitness of a creature
+	 * @see #computeFitnessScores(ToDoubleFunction)
+	 */
 	public void computeFitnessValues(Function<C, Double> fitnessFunction) {
-		// reset the fitness array list
-		fitness = new ArrayList<>();
+		computeFitnessScores(creature -> fitnessFunction.apply(creature));
+	}
+
+	/**
+	 * computes the fitness value of every creature with a function that
+	 * returns a primitive double, this avoids boxing each of the fitness
+	 * values. Lower values are considered to be more fit.
+	 * 
+	 * @param fitnessFunction
+	 *            function to compute the fitness of a creature
+	 */
+	public void computeFitnessScores(ToDoubleFunction<C> fitnessFunction) {
+		// compute the fitness values into a slot per creature so the ordering
+		// is the same no matter which thread computed each value
+		computeFitness((indices, values) -> runInChunks(indices.length, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				values[indices[i]] = fitnessFunction.applyAsDouble(creatures.get(indices[i]));
+			}
+		}));
+	}
+
+	/**
+	 * computes the fitness values of the creatures in batches, each batch is
+	 * handed to the fitness function at once so it can share work between
+	 * the creatures. If there is an executor the batches are run on it.
+	 * Lower values are considered to be more fit.
+	 * 
+	 * @param fitnessFunction
+	 *            function to compute the fitness of a batch of creatures
+	 * @see #setBatchSize(int)
+	 */
+	public void computeFitnessScores(BatchFitnessFunction<C> fitnessFunction) {
+		computeFitness((indices, values) -> {
+			// when every creature is evaluated the batches can be views of
+			// the creatures, otherwise gather the ones being evaluated
+			List<C> pending;
+			double[] scores;
+			if (indices.length == creatures.size()) {
+				pending = creatures;
+				scores = values;
+			} else {
+				pending = new ArrayList<>(indices.length);
+				for (int i : indices) {
+					pending.add(creatures.get(i));
+				}
+				scores = new double[indices.length];
+			}
+
+			int batches = (pending.size() + batchSize - 1) / batchSize;
+			runInChunks(batches, (from, to) -> {
+				for (int batch = from; batch < to; batch++) {
+					int start = batch * batchSize;
+					int end = Math.min(pending.size(), start + batchSize);
+					fitnessFunction.evaluate(pending.subList(start, end), scores, start);
+				}
+			});
+
+			if (scores != values) {
+				for (int i = 0; i < indices.length; i++) {
+					values[indices[i]] = scores[i];
+				}
+			}
+		});
+	}
+
+	/**
+	 * computes the fitness values of every creature, looking them up in the
+	 * cache first and only giving the evaluation the creatures that weren't
+	 * found
+	 * 
+	 * @param evaluation
+	 *            puts the fitness values of the creatures at the indices it
+	 *            is given in to the values array
+	 */
+	private void computeFitness(Evaluation evaluation) {
+		long allocationStart = startAllocations();
+		long start = System.nanoTime();
+		double[] values = new double[creatures.size()];
+
+		// find the creatures that aren't in the cache, these are the only
+		// ones that need to be evaluated
+		int[] toEvaluate;
+		if (cache == null) {
+			toEvaluate = Ranking.identity(creatures.size());
+		} else {
+			toEvaluate = new int[creatures.size()];
+			int misses = 0;
+			for (int i = 0; i < creatures.size(); i++) {
+				Double cached = cache.get(creatures.get(i).fingerprint());
+				if (cached == null)
+					toEvaluate[misses++] = i;
+				else
+					values[i] = cached;
+			}
+			toEvaluate = Arrays.copyOf(toEvaluate, misses);
+			cacheLookups += creatures.size();
+			cacheHits += creatures.size() - misses;
+		}
 
-		// compute the fitness values for all of the creatures
-		for (C creature : creatures) {
-			fitness.add(new Pair<>(creature, fitnessFunction.apply(creature)));
+		int[] indices = toEvaluate;
+		evaluation.run(indices, values);
+
+		// remember the new values
+		if (cache != null) {
+			for (int i : indices) {
+				cache.put(creatures.get(i).fingerprint(), values[i]);
+			}
 		}
+
+		// remember which creatures the values belong to, the creatures list is
+		// only ever replaced, never reordered, after this point so the two
+		// can be shared
+		evaluated = creatures;
+		fitness = values;
+
+		// only find the best creature, the full ranking is left until it is
+		// asked for
+		ranking = Ranking.identity(values.length);
+		ranked = false;
+		best = Ranking.best(values);
+
+		evaluations += indices.length;
+		evaluationNanos += System.nanoTime() - start;
+		evaluatedThisGeneration = true;
+		finishAllocations(allocationStart);
 	}
 
 	public void killAndRepopulate(int numberToRemove) {
 
-		// make a random number generator
-		Random r = new Random();
-
 		// make sure number to remove is less than the population size and
 		// greater than zero
 		if (numberToRemove < 0 || numberToRemove >= creatures.size() - 1)
 			throw new IllegalArgumentException("Invalid number of creatures to remove (" + numberToRemove
 					+ ") for population of size " + creatures.size());
 
-		// sort the fitness list
-		Collections.sort(fitness, (a, b) -> a.getSecond().compareTo(b.getSecond()));
-
-		// take the bottom "numberToRemove" and remove from the population
-		for (int i = creatures.size() - numberToRemove; i < fitness.size(); i++) {
-			creatures.remove(fitness.get(i).getFirst());
+		// make sure the fitness values belong to the current creatures
+		if (evaluated != creatures || ranking.length != creatures.size())
+			throw new IllegalStateException(
+					"Fitness values must be computed for the current population before culling!");
+
+		// move the survivors to the front of the ranking, this only needs a
+		// partial selection unless the ranking is already sorted
+		long allocationStart = startAllocations();
+		long start = System.nanoTime();
+		int survivors = creatures.size() - numberToRemove;
+		if (!ranked)
+			Ranking.select(ranking, fitness, survivors);
+		long selected = System.nanoTime();
+		selectionNanos += selected - start;
+
+		// mark the bottom "numberToRemove" and remove them from the population
+		boolean[] removed = new boolean[creatures.size()];
+		for (int i = survivors; i < ranking.length; i++) {
+			removed[ranking[i]] = true;
 		}
+		removeMarked(removed);
+		long culled = System.nanoTime();
+		cullNanos += culled - selected;
 
-		int reproducingPopulation = creatures.size();
-
-		// check if the population is a breeding or asexual population
-		if (isBreedingPopulation) {
-			for (int i = 0; i < numberToRemove; i++) {
-				// randomly select two creatures and breed them
-				int first, second;
-				do {
-					first = r.nextInt(reproducingPopulation);
-					second = r.nextInt(reproducingPopulation);
-				} while (first == second);
+		// breed the survivors back up to the original size
+		repopulate(numberToRemove);
+		reproductionNanos += System.nanoTime() - culled;
 
-				C newCreature = creatures.get(first).breed(creatures.get(second), mutationRate, mutationSeverity);
-
-				creatures.add(newCreature);
-			}
-		} else {
-			for (int i = 0; i < numberToRemove; i++) {
-				creatures.add(creatures.get(r.nextInt(reproducingPopulation)).asexuallyReproduce(mutationRate,
-						mutationSeverity));
-			}
-		}
+		finishAllocations(allocationStart);
+		finishGeneration();
 	}
 
 	/**
@@ -112,61 +434,136 @@ public class Population<C extends Creature<C, G>, G extends Gene<G>> {
 	 * @since Apr 17, 2016
 	 */
 	public void competeAndRepopulate(int numberOfCompetitions, BiFunction<C, C, Integer> competeFunction) {
-		Random r = new Random();
+		// make sure there will be at least two creatures left to reproduce
+		if (numberOfCompetitions < 0 || numberOfCompetitions >= creatures.size() - 1)
+			throw new IllegalArgumentException("Invalid number of competitions (" + numberOfCompetitions
+					+ ") for population of size " + creatures.size());
+
+		// keep the indices of the creatures still alive in the front of the
+		// array so losers can be dropped by swapping in the last one
+		long allocationStart = startAllocations();
+		long start = System.nanoTime();
+		int[] alive = Ranking.identity(creatures.size());
+		int aliveCount = alive.length;
+		SplittableRandom random = nextRandom();
+		boolean[] removed = new boolean[creatures.size()];
 
 		// go through and choose creatures at random and remove
 		for (int i = 0; i < numberOfCompetitions; i++) {
 			int index1, index2;
 			do {
-				index1 = r.nextInt(creatures.size());
-				index2 = r.nextInt(creatures.size());
+				index1 = random.nextInt(aliveCount);
+				index2 = random.nextInt(aliveCount);
 			} while (index1 == index2);
 
-			C creature1 = creatures.get(index1);
-			C creature2 = creatures.get(index2);
+			C creature1 = creatures.get(alive[index1]);
+			C creature2 = creatures.get(alive[index2]);
 
 			int winner = competeFunction.apply(creature1, creature2);
 
+			int loser;
 			switch (winner) {
 			case 0:
-				creatures.remove(index2);
+				loser = index2;
 				break;
 			case 1:
-				creatures.remove(index1);
+				loser = index1;
 				break;
 			default:
 				throw new RuntimeException(
 						"Invalid index for winner of creature tournament: " + winner + " accepted values are 0 or 1!");
 			}
+
+			removed[alive[loser]] = true;
+			alive[loser] = alive[--aliveCount];
 		}
 
+		long selected = System.nanoTime();
+		selectionNanos += selected - start;
+
+		// remove all of the losers in one pass
+		removeMarked(removed);
+		long culled = System.nanoTime();
+		cullNanos += culled - selected;
+
 		// re-populate the creatures
-		int reproducingPopulation = creatures.size();
-		if (isBreedingPopulation) {
-			for (int i = 0; i < numberOfCompetitions; i++) {
-				// randomly select two creatures and breed them
-				int first, second;
-				do {
-					first = r.nextInt(reproducingPopulation);
-					second = r.nextInt(reproducingPopulation);
-				} while (first == second);
-
-				C newCreature = creatures.get(first).breed(creatures.get(second), mutationRate, mutationSeverity);
-
-				creatures.add(newCreature);
-			}
-		} else {
-			for (int i = 0; i < numberOfCompetitions; i++) {
-				creatures.add(creatures.get(r.nextInt(reproducingPopulation)).asexuallyReproduce(mutationRate,
-						mutationSeverity));
+		repopulate(numberOfCompetitions);
+		reproductionNanos += System.nanoTime() - culled;
+
+		finishAllocations(allocationStart);
+		finishGeneration();
+	}
+
+	/**
+	 * ends the current generation, reporting its measurements to the
+	 * listeners and starting new measurements for the next one
+	 */
+	private void finishGeneration() {
+		generation++;
+
+		if (!listeners.isEmpty()) {
+			long allocated = allocationsMeasured ? allocatedBytes : -1;
+
+			// fitness values left over from an older generation aren't
+			// reported
+			GenerationStats stats = new GenerationStats(generation, creatures.size(), evaluationNanos,
+					selectionNanos, cullNanos, reproductionNanos, evaluations, cacheLookups, cacheHits,
+					allocated, evaluatedThisGeneration ? fitness : new double[0]);
+			for (GenerationListener listener : listeners) {
+				listener.generationFinished(stats);
 			}
 		}
+
+		evaluationNanos = 0;
+		selectionNanos = 0;
+		cullNanos = 0;
+		reproductionNanos = 0;
+		evaluations = 0;
+		cacheLookups = 0;
+		cacheHits = 0;
+		allocatedBytes = 0;
+		allocationsMeasured = true;
+		evaluatedThisGeneration = false;
+	}
+
+	/**
+	 * starts measuring the allocations of a step of the generation on the
+	 * current thread and on the executor
+	 * 
+	 * @return bytes allocated by the current thread so far, or -1 if the step
+	 *         isn't measured
+	 */
+	private long startAllocations() {
+		long results = listeners.isEmpty() ? -1 : Allocations.current();
+		if (results < 0) {
+			allocationsMeasured = false;
+			return -1;
+		}
+
+		workerAllocatedBytes.set(0);
+		measuredThread = Thread.currentThread().getId();
+		return results;
+	}
+
+	/**
+	 * adds the allocations of a step started with {@link #startAllocations()}
+	 * to the generation's, this must be called on the thread that started it
+	 */
+	private void finishAllocations(long start) {
+		if (start < 0)
+			return;
+
+		measuredThread = -1;
+		allocatedBytes += Allocations.current() - start + workerAllocatedBytes.get();
 	}
 
 	/**
 	 * creates a competition where the creatures compete against each other
 	 * using the compete function, the winner of the tournament is returned at
-	 * the end of the competition
+	 * the end of the competition. Each round the creatures are paired up at
+	 * random and the battles of the round are run on the population's
+	 * executor if there is one, so the compete function must be safe to call
+	 * from multiple threads in that case.
 	 * 
 	 * @param competeFunction
 	 *            function that will take in two creatures and return if
@@ -175,59 +572,381 @@ public class Population<C extends Creature<C, G>, G extends Gene<G>> {
 	 * @since Apr 17, 2016
 	 */
 	public C getBestCreatureByCompetition(BiFunction<C, C, Integer> competeFunction) {
-		Random r = new Random();
-
-		// take the initial population of creatures and do consecutive
-		// tournaments to determine the best creature
-		ArrayList<C> startingPopulation = new ArrayList<>(creatures);
-		ArrayList<C> winningPopulation = new ArrayList<>();
-
-		// each loop of this is a new tournament
-		while (startingPopulation.size() > 1) {
-
-			// each loop of this is a new battle
-			while (startingPopulation.size() >= 2) {
-				// take two random creatures to battle
-				int first, second;
-				do {
-					first = r.nextInt(startingPopulation.size());
-					second = r.nextInt(startingPopulation.size());
-				} while (first == second);
-
-				// get the creatures
-				C creature1 = startingPopulation.get(first);
-				C creature2 = startingPopulation.get(second);
-
-				// get the winner
-				C winner = competeFunction.apply(creature1, creature2) == 0 ? creature1 : creature2;
-
-				// add the winner to the winning population
-				winningPopulation.add(winner);
-
-				// remove both creatures from the starting population
-				startingPopulation.remove(creature1);
-				startingPopulation.remove(creature2);
-			}
+		// the creatures still in the tournament by index
+		int[] bracket = Ranking.identity(creatures.size());
+		int remaining = bracket.length;
+		SplittableRandom random = nextRandom();
+
+		// each loop of this is a new round
+		while (remaining > 1) {
+			// pair the creatures up at random
+			shuffle(bracket, remaining, random);
+
+			// every battle in the round is independent so they can all happen
+			// at the same time, the winner of battle i goes into slot i
+			int battles = remaining / 2;
+			int[] current = bracket;
+			int[] winners = new int[remaining - battles];
+			runInChunks(battles, (from, to) -> {
+				for (int i = from; i < to; i++) {
+					// get the creatures
+					int first = current[2 * i];
+					int second = current[2 * i + 1];
+
+					// get the winner
+					winners[i] = competeFunction.apply(creatures.get(first), creatures.get(second)) == 0 ? first
+							: second;
+				}
+			});
 
 			// check to see if there is just one left over
-			if (startingPopulation.size() == 1)
-				winningPopulation.add(startingPopulation.get(0));
+			if (remaining % 2 == 1)
+				winners[battles] = bracket[remaining - 1];
 
-			// set the starting population to be the same as the winning
-			// population and reset the winning population
-			startingPopulation = winningPopulation;
-			winningPopulation = new ArrayList<C>();
+			// the winners make up the next round
+			bracket = winners;
+			remaining = winners.length;
 		}
 
 		// return the winner which is the same as the only creature left
-		return startingPopulation.get(0);
+		return creatures.get(bracket[0]);
+	}
+
+	/**
+	 * shuffles the first length elements of the array
+	 * 
+	 * @param array
+	 *            array to shuffle
+	 * @param length
+	 *            how many elements to shuffle
+	 * @param random
+	 *            random number generator to use
+	 */
+	private static void shuffle(int[] array, int length, SplittableRandom random) {
+		for (int i = length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int t = array[i];
+			array[i] = array[j];
+			array[j] = t;
+		}
+	}
+
+	/**
+	 * adds the given number of children of the current creatures to the
+	 * population using the population's reproduction method. Each child gets
+	 * its own random number generator split from the population's in order,
+	 * so which parents are picked and how the child turns out are the same no
+	 * matter which thread makes it or how many threads there are.
+	 * 
+	 * @param count
+	 *            how many children to add
+	 */
+	private void repopulate(int count) {
+		int reproducingPopulation = creatures.size();
+
+		// split the random number generators on this thread so they are
+		// always handed out in the same order, recycled creatures are handed
+		// out the same way
+		SplittableRandom random = nextRandom();
+		SplittableRandom[] randoms = new SplittableRandom[count];
+		Object[] children = new Object[count];
+		for (int i = 0; i < count; i++) {
+			randoms[i] = random.split();
+			if (!pool.isEmpty())
+				children[i] = pool.remove(pool.size() - 1);
+		}
+
+		// make each child into its own slot
+		runInChunks(count, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				SplittableRandom r = randoms[i];
+				@SuppressWarnings("unchecked")
+				C target = (C) children[i];
+
+				// check if the population is a breeding or asexual population
+				if (isBreedingPopulation) {
+					// randomly select two creatures and breed them
+					int first, second;
+					do {
+						first = r.nextInt(reproducingPopulation);
+						second = r.nextInt(reproducingPopulation);
+					} while (first == second);
+
+					if (target != null)
+						creatures.get(first).breedInto(creatures.get(second), target, mutationRate, mutationSeverity,
+								r);
+					else
+						children[i] = creatures.get(first).breed(creatures.get(second), mutationRate,
+								mutationSeverity, r);
+				} else {
+					C parent = creatures.get(r.nextInt(reproducingPopulation));
+					if (target != null)
+						parent.asexuallyReproduceInto(target, mutationRate, mutationSeverity, r);
+					else
+						children[i] = parent.asexuallyReproduce(mutationRate, mutationSeverity, r);
+				}
+			}
+		});
+
+		// add the children in order
+		for (Object child : children) {
+			@SuppressWarnings("unchecked")
+			C creature = (C) child;
+			creatures.add(creature);
+		}
+	}
+
+	/**
+	 * replaces the creatures with a new list that has every creature that is
+	 * marked as removed taken out, the order of the remaining creatures is
+	 * kept
+	 * 
+	 * @param removed
+	 *            flag for each creature saying if it should be removed
+	 */
+	private void removeMarked(boolean[] removed) {
+		ArrayList<C> survivors = new ArrayList<>(creatures.size());
+		for (int i = 0; i < removed.length; i++) {
+			if (!removed[i])
+				survivors.add(creatures.get(i));
+			else if (recycling)
+				pool.add(creatures.get(i));
+		}
+		creatures = survivors;
+	}
+
+	/**
+	 * runs the given task over the range 0 to size, if there is an executor
+	 * the range is split into chunks that are run on the executor, otherwise
+	 * the whole range is run on the calling thread. This will block until
+	 * every chunk has finished.
+	 * 
+	 * @param size
+	 *            size of the range to cover
+	 * @param task
+	 *            task to run on each chunk of the range
+	 */
+	private void runInChunks(int size, ChunkTask task) {
+		// check if the work should just be done on this thread
+		if (executor == null || size <= 1) {
+			task.run(0, size);
+			return;
+		}
+
+		// determine how big each chunk should be, by default make a few
+		// chunks per processor so uneven work can balance out
+		int chunk = chunkSize;
+		if (chunk == 0)
+			chunk = Math.max(1, size / (Runtime.getRuntime().availableProcessors() * 4));
+
+		// split the range up into tasks
+		List<Callable<Void>> tasks = new ArrayList<>();
+		long measuring = measuredThread;
+		for (int from = 0; from < size; from += chunk) {
+			int start = from;
+			int end = Math.min(size, from + chunk);
+			tasks.add(() -> {
+				// work run on the measured thread is already being counted
+				boolean counted = measuring >= 0 && Thread.currentThread().getId() != measuring;
+				long allocated = counted ? Allocations.current() : 0;
+				task.run(start, end);
+				if (counted)
+					workerAllocatedBytes.addAndGet(Allocations.current() - allocated);
+				return null;
+			});
+		}
+
+		// run all of the tasks and rethrow anything that went wrong
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for population tasks to finish", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * computes the fitness values of the creatures at the given indices
+	 */
+	private interface Evaluation {
+		void run(int[] indices, double[] values);
+	}
+
+	/**
+	 * a piece of work over a chunk of indices from inclusive to exclusive
+	 */
+	private interface ChunkTask {
+		void run(int from, int to);
+	}
+
+	public int getSize() {
+		return creatures.size();
 	}
 
 	public C getBestCreature() {
-		return fitness.get(0).getFirst();
+		return evaluated.get(best);
 	}
 
 	public double getBestFitness() {
-		return fitness.get(0).getSecond();
+		return fitness[best];
+	}
+
+	/**
+	 * gets the creature with the given rank from the last time fitness values
+	 * were computed, rank 0 is the best creature. The first call after the
+	 * fitness values are computed sorts all of the creatures.
+	 * 
+	 * @param rank
+	 *            rank of the creature to get
+	 * @return creature with the given rank
+	 */
+	public C getCreatureByRank(int rank) {
+		return evaluated.get(ranking()[rank]);
+	}
+
+	/**
+	 * gets the fitness of the creature with the given rank from the last time
+	 * fitness values were computed, rank 0 is the best fitness. The first call
+	 * after the fitness values are computed sorts all of the creatures.
+	 * 
+	 * @param rank
+	 *            rank of the fitness to get
+	 * @return fitness with the given rank
+	 */
+	public double getFitnessByRank(int rank) {
+		return fitness[ranking()[rank]];
+	}
+
+	/**
+	 * replaces the least fit creatures with the given creatures, whose fitness
+	 * values are already known. This is used to bring creatures in from other
+	 * populations, the fitness values must come from the same fitness
+	 * function this population uses.
+	 * 
+	 * @param replacements
+	 *            creatures to put in the population
+	 * @param replacementFitness
+	 *            fitness value of each of the replacements
+	 */
+	public void replaceWorstCreatures(List<C> replacements, double[] replacementFitness) {
+		if (replacements.size() != replacementFitness.length)
+			throw new IllegalArgumentException("There must be one fitness value for each replacement creature!");
+
+		if (replacements.size() >= creatures.size())
+			throw new IllegalArgumentException("Invalid number of creatures to replace (" + replacements.size()
+					+ ") for population of size " + creatures.size());
+
+		// make sure the fitness values belong to the current creatures
+		if (evaluated != creatures || ranking.length != creatures.size())
+			throw new IllegalStateException(
+					"Fitness values must be computed for the current population before replacing creatures!");
+
+		// move the worst creatures to the end of the ranking
+		long start = System.nanoTime();
+		int kept = creatures.size() - replacements.size();
+		if (!ranked)
+			Ranking.select(ranking, fitness, kept);
+		selectionNanos += System.nanoTime() - start;
+
+		// put the replacements in their place
+		for (int i = 0; i < replacements.size(); i++) {
+			int index = ranking[kept + i];
+			creatures.set(index, replacements.get(i));
+			fitness[index] = replacementFitness[i];
+		}
+
+		// the order has changed
+		ranked = false;
+		best = Ranking.best(fitness);
+	}
+
+	/**
+	 * takes a snapshot of the population that can be saved and restored
+	 * later, this copies the list of creatures and the fitness values but not
+	 * the creatures themselves so it is cheap enough to take every
+	 * generation, unless the population is recycling its creatures. The
+	 * snapshot keeps the seed the population's next random numbers come from,
+	 * taking it doesn't change them.
+	 * 
+	 * @return snapshot of the population
+	 * @see Checkpointer
+	 */
+	public PopulationSnapshot<C, G> snapshot() {
+		// only keep the fitness values if they belong to the current creatures
+		double[] values = null;
+		if (evaluated == creatures && fitness.length == creatures.size())
+			values = fitness.clone();
+
+		return new PopulationSnapshot<>(shareableCopy(creatures), values, isBreedingPopulation, mutationRate,
+				mutationSeverity, randomSeed);
+	}
+
+	/**
+	 * replaces the state of the population with the snapshot, after this the
+	 * population will evolve the same way it did after the snapshot was taken
+	 * as long as the same calls are made. The executor, chunk size and
+	 * fitness cache are not part of the snapshot and are left as they are.
+	 * 
+	 * @param snapshot
+	 *            snapshot to restore
+	 */
+	public void restore(PopulationSnapshot<C, G> snapshot) {
+		creatures = shareableCopy(snapshot.getCreatures());
+		pool.clear();
+		isBreedingPopulation = snapshot.isBreeding();
+		mutationRate = snapshot.getMutationRate();
+		mutationSeverity = snapshot.getMutationSeverity();
+		randomSeed = snapshot.getSeed();
+
+		double[] values = snapshot.copyFitness();
+		if (values != null) {
+			evaluated = creatures;
+			fitness = values;
+			best = Ranking.best(values);
+		} else {
+			evaluated = new ArrayList<>();
+			fitness = new double[0];
+			best = -1;
+		}
+		ranking = Ranking.identity(fitness.length);
+		ranked = false;
+	}
+
+	/**
+	 * copies the list of creatures so it can be shared with a snapshot, when
+	 * recycling the creatures get overwritten so they are copied as well
+	 */
+	private ArrayList<C> shareableCopy(List<C> list) {
+		ArrayList<C> results = new ArrayList<>(list);
+		if (recycling) {
+			// copying doesn't mutate so any random number generator will do
+			SplittableRandom unused = new SplittableRandom(0);
+			for (int i = 0; i < results.size(); i++) {
+				results.set(i, results.get(i).asexuallyReproduce(0, 0, unused));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * gets the ranking of the evaluated creatures, sorting it if it hasn't
+	 * been sorted yet
+	 * 
+	 * @return the sorted ranking
+	 */
+	private int[] ranking() {
+		if (!ranked) {
+			long start = System.nanoTime();
+			Ranking.sort(ranking, fitness);
+			ranked = true;
+			selectionNanos += System.nanoTime() - start;
+		}
+		return ranking;
 	}
 }
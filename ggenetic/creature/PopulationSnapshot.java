@@ -0,0 +1,84 @@
+package ggenetic.creature;
+
+import java.util.Collections;
+import java.util.List;
+
+import ggenetic.genes.Gene;
+
+/**
+ * the state of a population at one point in time, made by
+ * {@link Population#snapshot()} and given back to
+ * {@link Population#restore(PopulationSnapshot)} to carry on from that point.
+ * The snapshot shares the creatures with the population, this is safe as
+ * creatures are never changed once they are made.
+ *
+ * @param <C>
+ *            type of creature
+ * @param <G>
+ *            type of gene
+ * @see Checkpointer
+ */
+public final class PopulationSnapshot<C extends Creature<C, G>, G extends Gene<G>> {
+
+	private final List<C> creatures;
+
+	// null if the fitness values weren't computed for these creatures
+	private final double[] fitness;
+
+	private final boolean breeding;
+
+	private final double mutationRate;
+
+	private final double mutationSeverity;
+
+	// seed the population's next random numbers come from
+	private final long seed;
+
+	PopulationSnapshot(List<C> creatures, double[] fitness, boolean breeding, double mutationRate,
+			double mutationSeverity, long seed) {
+		if (fitness != null && fitness.length != creatures.size())
+			throw new IllegalArgumentException("There must be one fitness value for each creature!");
+
+		this.creatures = Collections.unmodifiableList(creatures);
+		this.fitness = fitness;
+		this.breeding = breeding;
+		this.mutationRate = mutationRate;
+		this.mutationSeverity = mutationSeverity;
+		this.seed = seed;
+	}
+
+	public List<C> getCreatures() {
+		return creatures;
+	}
+
+	public boolean hasFitness() {
+		return fitness != null;
+	}
+
+	public double getFitness(int i) {
+		return fitness[i];
+	}
+
+	public boolean isBreeding() {
+		return breeding;
+	}
+
+	public double getMutationRate() {
+		return mutationRate;
+	}
+
+	public double getMutationSeverity() {
+		return mutationSeverity;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * copies of the fitness values for the population to own
+	 */
+	double[] copyFitness() {
+		return fitness == null ? null : fitness.clone();
+	}
+}
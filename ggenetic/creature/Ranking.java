@@ -0,0 +1,188 @@
+package ggenetic.creature;
+
+/**
+ * helper methods for ordering creatures by their fitness scores without
+ * boxing, the creatures are represented by their index into the score array
+ * and only the index arrays are rearranged.
+ */
+final class Ranking {
+
+	private Ranking() {}
+
+	/**
+	 * makes the identity permutation of the given size
+	 *
+	 * @param size
+	 *            how many indices there should be
+	 * @return array where each element is its own index
+	 */
+	static int[] identity(int size) {
+		int[] results = new int[size];
+		for (int i = 0; i < size; i++) {
+			results[i] = i;
+		}
+		return results;
+	}
+
+	/**
+	 * sorts the indices so their scores are increasing, this is a stable merge
+	 * sort so creatures with equal scores keep the order they were given in.
+	 *
+	 * @param indices
+	 *            indices to sort
+	 * @param scores
+	 *            scores that the indices point into
+	 */
+	static void sort(int[] indices, double[] scores) {
+		sort(indices, 0, indices.length, scores);
+	}
+
+	/**
+	 * sorts the indices in the given range so their scores are increasing
+	 *
+	 * @param indices
+	 *            indices to sort
+	 * @param from
+	 *            start of the range, inclusive
+	 * @param to
+	 *            end of the range, exclusive
+	 * @param scores
+	 *            scores that the indices point into
+	 */
+	static void sort(int[] indices, int from, int to, double[] scores) {
+		if (to - from < 2)
+			return;
+
+		int[] scratch = indices.clone();
+		mergeSort(scratch, indices, from, to, scores);
+	}
+
+	/**
+	 * finds the index with the lowest score, if there are ties the first one
+	 * is given
+	 *
+	 * @param scores
+	 *            scores to search
+	 * @return index of the lowest score or -1 if there are no scores
+	 */
+	static int best(double[] scores) {
+		int best = scores.length == 0 ? -1 : 0;
+		for (int i = 1; i < scores.length; i++) {
+			if (Double.compare(scores[i], scores[best]) < 0)
+				best = i;
+		}
+		return best;
+	}
+
+	/**
+	 * rearranges the indices so the first k of them point to the k lowest
+	 * scores, neither side of the split is sorted. This is a quickselect with
+	 * a three way partition so it runs in linear time on average, if it starts
+	 * to go badly it falls back to sorting the remaining range.
+	 *
+	 * @param indices
+	 *            indices to rearrange
+	 * @param scores
+	 *            scores that the indices point into
+	 * @param k
+	 *            how many of the lowest scores should be moved to the front
+	 */
+	static void select(int[] indices, double[] scores, int k) {
+		if (k <= 0 || k >= indices.length)
+			return;
+
+		int lo = 0;
+		int hi = indices.length - 1;
+
+		// allow about twice the expected depth before giving up on the
+		// partitioning
+		int depth = 2 * (32 - Integer.numberOfLeadingZeros(indices.length));
+
+		while (hi > lo) {
+			if (depth-- == 0) {
+				sort(indices, lo, hi + 1, scores);
+				return;
+			}
+
+			double pivot = medianOfThree(scores[indices[lo]], scores[indices[(lo + hi) >>> 1]], scores[indices[hi]]);
+
+			// split into less than, equal to and greater than the pivot
+			int lt = lo, i = lo, gt = hi;
+			while (i <= gt) {
+				int c = Double.compare(scores[indices[i]], pivot);
+				if (c < 0)
+					swap(indices, lt++, i++);
+				else if (c > 0)
+					swap(indices, i, gt--);
+				else
+					i++;
+			}
+
+			// keep going on the side that the split point is on, if it is in
+			// the equal range then everything is in place
+			if (k < lt)
+				hi = lt - 1;
+			else if (k > gt + 1)
+				lo = gt + 1;
+			else
+				return;
+		}
+	}
+
+	private static double medianOfThree(double a, double b, double c) {
+		if (Double.compare(a, b) > 0) {
+			double t = a;
+			a = b;
+			b = t;
+		}
+		if (Double.compare(b, c) > 0)
+			b = Double.compare(a, c) > 0 ? a : c;
+		return b;
+	}
+
+	private static void swap(int[] array, int i, int j) {
+		int t = array[i];
+		array[i] = array[j];
+		array[j] = t;
+	}
+
+	/**
+	 * sorts the range from the source array into the destination array, both
+	 * arrays must contain the same elements in the range when called
+	 */
+	private static void mergeSort(int[] src, int[] dest, int from, int to, double[] scores) {
+		// use insertion sort on the small ranges
+		if (to - from < 16) {
+			for (int i = from + 1; i < to; i++) {
+				int index = dest[i];
+				double score = scores[index];
+				int j = i - 1;
+				while (j >= from && Double.compare(scores[dest[j]], score) > 0) {
+					dest[j + 1] = dest[j];
+					j--;
+				}
+				dest[j + 1] = index;
+			}
+			return;
+		}
+
+		// sort both halves into the source then merge back into the
+		// destination
+		int mid = (from + to) >>> 1;
+		mergeSort(dest, src, from, mid, scores);
+		mergeSort(dest, src, mid, to, scores);
+
+		// check if the halves are already in order
+		if (Double.compare(scores[src[mid - 1]], scores[src[mid]]) <= 0) {
+			System.arraycopy(src, from, dest, from, to - from);
+			return;
+		}
+
+		for (int i = from, p = from, q = mid; i < to; i++) {
+			if (q >= to || (p < mid && Double.compare(scores[src[p]], scores[src[q]]) <= 0))
+				dest[i] = src[p++];
+			else
+				dest[i] = src[q++];
+		}
+	}
+}
@@ -0,0 +1,326 @@
+package ggenetic.creature;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToDoubleFunction;
+
+import ggenetic.genes.Gene;
+
+/**
+ * a population without generations. Each worker over and over picks parents
+ * by tournament, breeds a child, evaluates it and puts it in place of a worse
+ * creature, so no worker ever waits for a slow evaluation on another worker.
+ * The creatures are kept in an atomic array and a child is put in with a
+ * compare and set, if another worker changed the slot first the slot is
+ * checked again.
+ *
+ * As the workers race each other the population does not evolve the same way
+ * every time even with a seed.
+ *
+ * @param <C>
+ *            type of creature
+ * @param <G>
+ *            type of gene
+ */
+public class SteadyStatePopulation<C extends Creature<C, G>, G extends Gene<G>> {
+
+	private final ToDoubleFunction<C> fitnessFunction;
+
+	private final ExecutorService executor;
+
+	private AtomicReferenceArray<Slot<C>> slots = new AtomicReferenceArray<>(0);
+
+	private int workers = Runtime.getRuntime().availableProcessors();
+
+	private int tournamentSize = 2;
+
+	private boolean isBreedingPopulation = false;
+
+	private double mutationRate = 0;
+
+	private double mutationSeverity = 0;
+
+	private SplittableRandom random = new SplittableRandom();
+
+	private final AtomicLong evaluations = new AtomicLong();
+
+	private final AtomicLong replacements = new AtomicLong();
+
+	/**
+	 * creates a population that evaluates its creatures with the fitness
+	 * function and runs its workers on the executor
+	 *
+	 * @param fitnessFunction
+	 *            function to compute the fitness of a creature, lower is
+	 *            better, it must be safe to call from multiple threads
+	 * @param executor
+	 *            executor to run the workers on, it needs a thread for each
+	 *            worker for them all to run at once
+	 */
+	public SteadyStatePopulation(ToDoubleFunction<C> fitnessFunction, ExecutorService executor) {
+		this.fitnessFunction = fitnessFunction;
+		this.executor = executor;
+	}
+
+	public void setBreedingPopulation() {
+		isBreedingPopulation = true;
+	}
+
+	public void setAsexualPopulation() {
+		isBreedingPopulation = false;
+	}
+
+	public void setMutationRate(double mutationRate) {
+		this.mutationRate = mutationRate;
+	}
+
+	public void setMutationSeverity(double mutationSeverity) {
+		this.mutationSeverity = mutationSeverity;
+	}
+
+	public void setSeed(long seed) {
+		random = new SplittableRandom(seed);
+	}
+
+	/**
+	 * sets how many workers breed and evaluate at the same time
+	 *
+	 * @param workers
+	 *            number of workers
+	 */
+	public void setWorkers(int workers) {
+		if (workers <= 0)
+			throw new IllegalArgumentException("Number of workers must be positive (" + workers + ")");
+
+		this.workers = workers;
+	}
+
+	/**
+	 * sets how many creatures are picked at random for each tournament, the
+	 * best of them becomes a parent and the worst of them is the one a child
+	 * may replace. Bigger tournaments mean stronger selection.
+	 *
+	 * @param tournamentSize
+	 *            creatures in each tournament
+	 */
+	public void setTournamentSize(int tournamentSize) {
+		if (tournamentSize <= 0)
+			throw new IllegalArgumentException("Tournament size must be positive (" + tournamentSize + ")");
+
+		this.tournamentSize = tournamentSize;
+	}
+
+	/**
+	 * fills the population with random creatures and evaluates them on the
+	 * workers
+	 *
+	 * @param populationSize
+	 *            number of creatures
+	 * @param seed
+	 *            creature to make random creatures from
+	 */
+	public void populate(int populationSize, C seed) {
+		if (populationSize < 2)
+			throw new IllegalArgumentException("Population must have at least two creatures (" + populationSize + ")");
+
+		List<C> creatures = new ArrayList<>(populationSize);
+		for (int i = 0; i < populationSize; i++) {
+			creatures.add(seed.randomize(random));
+		}
+
+		// the workers take the next creature to evaluate until there are none
+		// left
+		AtomicReferenceArray<Slot<C>> results = new AtomicReferenceArray<>(populationSize);
+		AtomicLong next = new AtomicLong();
+		runWorkers(r -> {
+			int i;
+			while ((i = (int) next.getAndIncrement()) < populationSize) {
+				C creature = creatures.get(i);
+				results.set(i, new Slot<>(creature, fitnessFunction.applyAsDouble(creature)));
+				evaluations.incrementAndGet();
+			}
+		});
+		slots = results;
+	}
+
+	/**
+	 * runs the workers until the given number of children have been bred and
+	 * evaluated between all of them, this blocks until they are done
+	 *
+	 * @param children
+	 *            how many children to make
+	 */
+	public void evolve(long children) {
+		if (slots.length() < 2)
+			throw new IllegalStateException("The population must be populated before it can evolve!");
+
+		AtomicLong remaining = new AtomicLong(children);
+		runWorkers(r -> {
+			while (remaining.getAndDecrement() > 0) {
+				step(r);
+			}
+		});
+	}
+
+	/**
+	 * makes one child, evaluates it and puts it in the population if it is
+	 * better than the loser of a tournament
+	 */
+	private void step(SplittableRandom r) {
+		C child;
+		if (isBreedingPopulation) {
+			C first = slots.get(tournament(r, true)).creature;
+			C second = slots.get(tournament(r, true)).creature;
+			child = first.breed(second, mutationRate, mutationSeverity, r);
+		} else {
+			child = slots.get(tournament(r, true)).creature.asexuallyReproduce(mutationRate, mutationSeverity, r);
+		}
+
+		Slot<C> slot = new Slot<>(child, fitnessFunction.applyAsDouble(child));
+		evaluations.incrementAndGet();
+
+		// keep trying while the child is better than whatever is in the slot
+		int index = tournament(r, false);
+		Slot<C> current;
+		while (Double.compare(slot.fitness, (current = slots.get(index)).fitness) < 0) {
+			if (slots.compareAndSet(index, current, slot)) {
+				replacements.incrementAndGet();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * picks creatures at random and gives the index of the best or the worst
+	 * of them
+	 */
+	private int tournament(SplittableRandom r, boolean best) {
+		int size = slots.length();
+		int results = r.nextInt(size);
+		double fitness = slots.get(results).fitness;
+		for (int i = 1; i < tournamentSize; i++) {
+			int index = r.nextInt(size);
+			double other = slots.get(index).fitness;
+			int c = Double.compare(other, fitness);
+			if (best ? c < 0 : c > 0) {
+				results = index;
+				fitness = other;
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * runs the task on every worker with its own random number generator and
+	 * waits for all of them to finish, rethrowing anything that went wrong
+	 */
+	private void runWorkers(WorkerTask task) {
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < workers; i++) {
+			SplittableRandom r = random.split();
+			futures.add(executor.submit(() -> task.run(r)));
+		}
+
+		try {
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for workers to finish", e);
+		} catch (ExecutionException e) {
+			for (Future<?> future : futures) {
+				future.cancel(true);
+			}
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * work done by each worker
+	 */
+	private interface WorkerTask {
+		void run(SplittableRandom random);
+	}
+
+	/**
+	 * gets how many creatures have been evaluated
+	 *
+	 * @return number of evaluations
+	 */
+	public long getEvaluations() {
+		return evaluations.get();
+	}
+
+	/**
+	 * gets how many children have been put into the population
+	 *
+	 * @return number of replacements
+	 */
+	public long getReplacements() {
+		return replacements.get();
+	}
+
+	public int getSize() {
+		return slots.length();
+	}
+
+	/**
+	 * gets the creatures currently in the population, if workers are running
+	 * it may already be out of date
+	 *
+	 * @return the creatures
+	 */
+	public List<C> getCreatures() {
+		List<C> results = new ArrayList<>(slots.length());
+		for (int i = 0; i < slots.length(); i++) {
+			results.add(slots.get(i).creature);
+		}
+		return results;
+	}
+
+	public C getBestCreature() {
+		return best().creature;
+	}
+
+	public double getBestFitness() {
+		return best().fitness;
+	}
+
+	private Slot<C> best() {
+		if (slots.length() == 0)
+			throw new IllegalStateException("The population hasn't been populated yet!");
+
+		Slot<C> best = slots.get(0);
+		for (int i = 1; i < slots.length(); i++) {
+			Slot<C> slot = slots.get(i);
+			if (Double.compare(slot.fitness, best.fitness) < 0)
+				best = slot;
+		}
+		return best;
+	}
+
+	/**
+	 * a creature with its fitness, a slot is never changed so it can be
+	 * swapped in with a single compare and set
+	 */
+	private static final class Slot<C> {
+
+		private final C creature;
+
+		private final double fitness;
+
+		private Slot(C creature, double fitness) {
+			this.creature = creature;
+			this.fitness = fitness;
+		}
+	}
+}
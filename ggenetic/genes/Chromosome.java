@@ -2,13 +2,29 @@ package ggenetic.genes;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Random;
-import java.util.function.Function;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import ggenetic.random.ThreadRandom;
 
 public class Chromosome<G extends Gene<G>> {
 
 	private ArrayList<G> genes;
 
+	// cached fingerprint, kept up to date when genes are mutated through the
+	// chromosome
+	private long fingerprint;
+
+	private boolean fingerprinted = false;
+
+	/**
+	 * constructor for subclasses that store their genes themselves, a
+	 * subclass using this must override every method that uses the genes
+	 */
+	protected Chromosome() {
+		genes = null;
+	}
+
 	@SafeVarargs
 	public Chromosome(G... genes) {
 		this.genes = new ArrayList<>(Arrays.asList(genes));
@@ -19,22 +35,38 @@ public class Chromosome<G extends Gene<G>> {
 	}
 
 	public Chromosome(Chromosome<G> chromosome) {
-		genes = new ArrayList<>();
-		for (G gene : chromosome.genes) {
-			genes.add(gene.copy());
+		genes = new ArrayList<>(chromosome.size());
+		for (int i = 0; i < chromosome.size(); i++) {
+			genes.add(chromosome.getGene(i).copy());
 		}
+		copyFingerprint(chromosome);
 	}
 
 	public Chromosome(G seedGene, int genes) {
+		this(seedGene, genes, ThreadRandom.current());
+	}
+
+	/**
+	 * creates a chromosome of randomized genes using the given random number
+	 * generator
+	 * 
+	 * @param seedGene
+	 *            gene that will be randomized and copied for each gene
+	 * @param genes
+	 *            how many genes are in the chromosome
+	 * @param random
+	 *            random number generator to use
+	 */
+	public Chromosome(G seedGene, int genes, SplittableRandom random) {
 		this.genes = new ArrayList<>();
 		for (int i = 0; i < genes; i++) {
-			seedGene.randomize();
-			this.genes.add(seedGene.copy());
+			this.genes.add(seedGene.randomCopy(random));
 		}
 	}
 
 	/**
-	 * gets the gene at the specified position
+	 * gets the gene at the specified position, the gene should not be changed
+	 * as the chromosome won't know about the change
 	 * 
 	 * @param i
 	 *            index to look at
@@ -44,6 +76,40 @@ public class Chromosome<G extends Gene<G>> {
 		return genes.get(i);
 	}
 
+	/**
+	 * gets how many genes are in the chromosome
+	 * 
+	 * @return number of genes
+	 */
+	public int size() {
+		return genes.size();
+	}
+
+	/**
+	 * makes a deep copy of the chromosome, subclasses should override this so
+	 * the copy is the same type of chromosome
+	 * 
+	 * @return a copy of the chromosome
+	 */
+	public Chromosome<G> copy() {
+		return new Chromosome<G>(this);
+	}
+
+	/**
+	 * makes a chromosome of the same type and with the same settings as this
+	 * one but holding the given genes, this is how decoded chromosomes keep
+	 * their type. Subclasses that can only breed with their own type must
+	 * override this.
+	 * 
+	 * @param genes
+	 *            genes of the new chromosome, they are owned by it afterwards
+	 * @return a chromosome of the genes
+	 * @see GenomeCodec
+	 */
+	public Chromosome<G> withGenes(List<G> genes) {
+		return new Chromosome<G>(new ArrayList<>(genes));
+	}
+
 	/**
 	 * mutates the current chromosome with the given rate and severity of the
 	 * mutation, a higher rate indicates that more genes will be mutated, and a
@@ -58,37 +124,66 @@ public class Chromosome<G extends Gene<G>> {
 	 *            mutated
 	 */
 	public void mutate(double rate, double severity) {
-		// make a new random number generator
-		Random r = new Random();
-
-		// make the percent point function that converts severity, this will map
-		// anything given to the pdf of y/(E^y - 1))*E^(x*y), which is a proper
-		// pdf from 0 to 1 with increasing probability in the 1 range with
-		// increasing severity, and increasing probability in the 0 range with
-		// decreasing severity
-		Function<Double, Double> ppf = d -> Math.log(1 - d + Math.exp(severity) * d) / severity;
+		mutate(rate, severity, ThreadRandom.current());
+	}
 
-		// check if severity is 0, in that case use the limit of the function as
-		// it is discontinuous.
-		if (severity == 0)
-			ppf = d -> d;
+	/**
+	 * mutates the current chromosome using the given random number generator
+	 * 
+	 * @param rate
+	 *            percent chance of mutation for a given gene
+	 * @param severity
+	 *            how severe the mutations will be on average given the gene is
+	 *            mutated
+	 * @param r
+	 *            random number generator to use
+	 * @see #mutate(double, double)
+	 */
+	public void mutate(double rate, double severity, SplittableRandom r) {
+		// check if nothing can be mutated
+		if (!(rate > 0))
+			return;
+
+		// for low rates jump straight to each gene that will be mutated
+		if (Mutations.isSparse(rate)) {
+			double logMiss = Math.log1p(-rate);
+			int size = genes.size();
+			int i = Mutations.nextLocus(-1, size, logMiss, r);
+			while (i < size) {
+				mutateGene(i, Mutations.severity(r.nextDouble(), severity), r);
+				i = Mutations.nextLocus(i, size, logMiss, r);
+			}
+			return;
+		}
 
 		// loop through each of the genes and determine if it should be mutated
-		for (G g : genes) {
+		for (int i = 0; i < genes.size(); i++) {
 
 			// determine if it is mutated
 			if (r.nextDouble() < rate) {
 				// if so mutate with a randomly generated mutation rate
-				double m = r.nextDouble();
-				double s = ppf.apply(m);
-				
-				g.mutate(s);
-
+				mutateGene(i, Mutations.severity(r.nextDouble(), severity), r);
 			}
 
 		}
 	}
 
+	/**
+	 * mutates a single gene keeping the fingerprint up to date, if the gene
+	 * gives back a different gene it replaces the old one
+	 */
+	private void mutateGene(int i, double severity, SplittableRandom r) {
+		G g = genes.get(i);
+		long old = fingerprinted ? g.fingerprint() : 0;
+
+		G mutated = g.mutated(severity, r);
+		if (mutated != g)
+			genes.set(i, mutated);
+
+		if (fingerprinted)
+			geneChanged(i, old, mutated.fingerprint());
+	}
+
 	/**
 	 * breeds the current chromosome with the chromosome given, the genes will
 	 * come from each parent with 50% probability, and the final chromosome will
@@ -102,15 +197,31 @@ public class Chromosome<G extends Gene<G>> {
 	 *            severity rate for the mutation
 	 * @return the resulting breed chromosome
 	 */
-	@SuppressWarnings("unchecked")
 	public Chromosome<G> breed(Chromosome<G> other, double mutationRate, double mutationSeverity) {
-		// new random number generator
-		Random r = new Random();
+		return breed(other, mutationRate, mutationSeverity, ThreadRandom.current());
+	}
 
+	/**
+	 * breeds the current chromosome with the chromosome given using the given
+	 * random number generator
+	 * 
+	 * @param other
+	 *            chromosome to breed with
+	 * @param mutationRate
+	 *            rate of mutation
+	 * @param mutationSeverity
+	 *            severity rate for the mutation
+	 * @param r
+	 *            random number generator to use
+	 * @return the resulting breed chromosome
+	 * @see #breed(Chromosome, double, double)
+	 */
+	public Chromosome<G> breed(Chromosome<G> other, double mutationRate, double mutationSeverity,
+			SplittableRandom r) {
 		// the resulting chromosome
 		Chromosome<G> results = null;
 		// check that they have the same number of genes
-		if (genes.size() == other.genes.size()) {
+		if (genes.size() == other.size()) {
 
 			// stores the results
 			ArrayList<G> resultsGenes = new ArrayList<>();
@@ -136,7 +247,7 @@ public class Chromosome<G extends Gene<G>> {
 
 			// while inside both of the sizes for both chromosomes add to the
 			// resultsGenes
-			for (int i = 0; i < genes.size() && i < other.genes.size(); i++) {
+			for (int i = 0; i < genes.size() && i < other.size(); i++) {
 
 				// check if it should come from parent 1
 				if (r.nextDouble() < .5) {
@@ -149,38 +260,228 @@ public class Chromosome<G extends Gene<G>> {
 			// add the remaining genes from the larger parent until either
 			// chance runs out or they have all been added
 			Chromosome<G> larger = null;
-			if (genes.size() > other.genes.size()) {
+			if (genes.size() > other.size()) {
 				larger = this;
 			} else {
 				larger = other;
 			}
 
-			while (resultsGenes.size() < larger.genes.size() && r.nextDouble() < .5) {
+			while (resultsGenes.size() < larger.size() && r.nextDouble() < .5) {
 				resultsGenes.add(larger.getGene(resultsGenes.size()).copy());
 			}
 
 			// put the results genes into the results chromosome
-			results = new Chromosome<G>(resultsGenes.toArray((G[]) new Object[0]));
+			results = new Chromosome<G>(resultsGenes);
 
 		}
 
 		// after the results have been obtained mutate the chromosome with the
 		// given rates
-		results.mutate(mutationRate, mutationSeverity);
+		results.mutate(mutationRate, mutationSeverity, r);
+
+		return results;
+	}
+
+	/**
+	 * breeds the current chromosome with the other chromosome the same way
+	 * {@link #breed(Chromosome, double, double, SplittableRandom)} does, but
+	 * overwrites the genes of the target chromosome with
+	 * {@link Gene#copyFrom(Gene)} instead of making new ones. This only works
+	 * on plain chromosomes, for anything else, or if the target is one of the
+	 * parents, a new chromosome is bred instead.
+	 * 
+	 * @param other
+	 *            chromosome to breed with
+	 * @param target
+	 *            chromosome to overwrite with the child
+	 * @param mutationRate
+	 *            rate of mutation
+	 * @param mutationSeverity
+	 *            severity rate for the mutation
+	 * @param r
+	 *            random number generator to use
+	 * @return the child, which is the target if it could be reused
+	 */
+	public Chromosome<G> breedInto(Chromosome<G> other, Chromosome<G> target, double mutationRate,
+			double mutationSeverity, SplittableRandom r) {
+		if (!canOverwrite(target) || other.getClass() != Chromosome.class || target == other)
+			return breed(other, mutationRate, mutationSeverity, r);
+
+		// pick each gene from either parent while both have one
+		int i = 0;
+		for (; i < size() && i < other.size(); i++) {
+			// check if it should come from parent 1
+			if (r.nextDouble() < .5) {
+				overwriteGene(target.genes, i, getGene(i));
+			} else {
+				overwriteGene(target.genes, i, other.getGene(i));
+			}
+		}
 
+		// add the remaining genes from the larger parent until either chance
+		// runs out or they have all been added
+		if (size() != other.size()) {
+			Chromosome<G> larger = size() > other.size() ? this : other;
+			while (i < larger.size() && r.nextDouble() < .5) {
+				overwriteGene(target.genes, i, larger.getGene(i));
+				i++;
+			}
+		}
+
+		// drop any genes the target had past the end of the child
+		target.genes.subList(i, target.genes.size()).clear();
+		target.invalidateFingerprint();
+
+		target.mutate(mutationRate, mutationSeverity, r);
+		return target;
+	}
+
+	/**
+	 * copies the current chromosome into the target chromosome with
+	 * {@link Gene#copyFrom(Gene)}, this only works on plain chromosomes, for
+	 * anything else, or if the target is this chromosome, a new copy is made
+	 * instead.
+	 * 
+	 * @param target
+	 *            chromosome to overwrite
+	 * @return the copy, which is the target if it could be reused
+	 */
+	public Chromosome<G> copyInto(Chromosome<G> target) {
+		if (!canOverwrite(target))
+			return copy();
+
+		for (int i = 0; i < size(); i++) {
+			overwriteGene(target.genes, i, getGene(i));
+		}
+		target.genes.subList(size(), target.genes.size()).clear();
+		target.copyFingerprint(this);
+		return target;
+	}
+
+	private boolean canOverwrite(Chromosome<G> target) {
+		return getClass() == Chromosome.class && target.getClass() == Chromosome.class && target != this;
+	}
+
+	/**
+	 * sets the gene at the index to a copy of the source gene, reusing the
+	 * gene already there if there is one, immutable genes are just shared
+	 */
+	private static <G extends Gene<G>> void overwriteGene(ArrayList<G> genes, int i, G source) {
+		if (i >= genes.size())
+			genes.add(source.copy());
+		else if (source.isImmutable())
+			genes.set(i, source);
+		else
+			genes.get(i).copyFrom(source);
+	}
+
+	/**
+	 * picks the length of a child of two chromosomes the same way
+	 * {@link #breed(Chromosome, double, double, SplittableRandom)} does, the
+	 * child gets all of the genes both parents have and then each of the
+	 * remaining genes of the longer parent with 50% chance until one is
+	 * missed.
+	 * 
+	 * @param length
+	 *            length of the first parent
+	 * @param otherLength
+	 *            length of the second parent
+	 * @param r
+	 *            random number generator to use
+	 * @return length of the child
+	 */
+	protected static int breedLength(int length, int otherLength, SplittableRandom r) {
+		int results = Math.min(length, otherLength);
+		int larger = Math.max(length, otherLength);
+		while (results < larger && r.nextDouble() < .5) {
+			results++;
+		}
 		return results;
 	}
 
+	/**
+	 * gives a 64 bit fingerprint of the chromosome, equal chromosomes have the
+	 * same fingerprint. This is only computed the first time it is asked for,
+	 * after that it is updated as genes are mutated through the chromosome.
+	 * 
+	 * @return fingerprint of the chromosome
+	 * @see Fingerprints
+	 */
+	public long fingerprint() {
+		if (!fingerprinted) {
+			fingerprint = computeFingerprint();
+			fingerprinted = true;
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * computes the fingerprint from scratch, subclasses that store their
+	 * genes themselves can override this to work on their storage directly
+	 * 
+	 * @return fingerprint of the chromosome
+	 */
+	protected long computeFingerprint() {
+		long results = Fingerprints.empty(size());
+		for (int i = 0; i < size(); i++) {
+			results ^= Fingerprints.locus(getGene(i).fingerprint(), i);
+		}
+		return results;
+	}
+
+	/**
+	 * updates the cached fingerprint, if there is one, after the gene at the
+	 * given position changed. Subclasses must call this or
+	 * {@link #invalidateFingerprint()} whenever they change a gene.
+	 * 
+	 * @param index
+	 *            position of the gene that changed
+	 * @param oldFingerprint
+	 *            fingerprint of the gene before the change
+	 * @param newFingerprint
+	 *            fingerprint of the gene after the change
+	 */
+	protected void geneChanged(int index, long oldFingerprint, long newFingerprint) {
+		if (fingerprinted)
+			fingerprint ^= Fingerprints.locus(oldFingerprint, index) ^ Fingerprints.locus(newFingerprint, index);
+	}
+
+	/**
+	 * checks if the fingerprint is currently cached, subclasses can use this
+	 * to skip work needed to call {@link #geneChanged(int, long, long)}
+	 * 
+	 * @return if the fingerprint is cached
+	 */
+	protected boolean isFingerprinted() {
+		return fingerprinted;
+	}
+
+	/**
+	 * throws away the cached fingerprint so it will be computed again the
+	 * next time it is needed
+	 */
+	protected void invalidateFingerprint() {
+		fingerprinted = false;
+	}
+
+	/**
+	 * takes the cached fingerprint from a chromosome this is a copy of
+	 * 
+	 * @param chromosome
+	 *            chromosome that was copied
+	 */
+	protected void copyFingerprint(Chromosome<G> chromosome) {
+		fingerprint = chromosome.fingerprint;
+		fingerprinted = chromosome.fingerprinted;
+	}
+
 	public String toString() {
 		return genes.toString();
 	}
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((genes == null) ? 0 : genes.hashCode());
-		return result;
+		return Fingerprints.hash(fingerprint());
 	}
 
 	@Override
@@ -193,6 +494,9 @@ public class Chromosome<G extends Gene<G>> {
 			return false;
 		@SuppressWarnings("unchecked")
 		Chromosome<G> other = (Chromosome<G>) obj;
+		// different fingerprints mean they can't be equal
+		if (fingerprint() != other.fingerprint())
+			return false;
 		if (genes == null) {
 			if (other.genes != null)
 				return false;
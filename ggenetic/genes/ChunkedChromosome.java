@@ -0,0 +1,319 @@
+package ggenetic.genes;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import ggenetic.random.ThreadRandom;
+
+/**
+ * a chromosome that splits its genes into fixed size chunks that are shared
+ * between a chromosome and its copies. Copying only copies the references to
+ * the chunks, and a chunk is only copied when a gene in it is mutated, so
+ * making a child of a long chromosome with a low mutation rate only copies the
+ * few chunks that were mutated. Children made by breeding share any chunk
+ * that both parents share.
+ * 
+ * Copying a chromosome marks all of its chunks as shared, so the original
+ * will also copy a chunk before it mutates it again. The genes handed out by
+ * {@link #getGene(int)} may be shared with other chromosomes and must never be
+ * changed.
+ *
+ * @param <G>
+ *            type of gene in the chromosome
+ */
+public class ChunkedChromosome<G extends Gene<G>> extends Chromosome<G> {
+
+	/**
+	 * chunk size used when one isn't given
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 64;
+
+	private final int length;
+
+	// chunk size is a power of two so a gene's chunk is found with a shift
+	private final int shift;
+
+	private final Object[][] chunks;
+
+	// if a chunk and the genes in it are only used by this chromosome, in
+	// which case they can be changed in place
+	private boolean[] owned;
+
+	/**
+	 * creates a chunked copy of the given chromosome
+	 * 
+	 * @param chromosome
+	 *            chromosome to copy the genes from
+	 * @param chunkSize
+	 *            how many genes are in each chunk, must be a power of two
+	 */
+	public ChunkedChromosome(Chromosome<G> chromosome, int chunkSize) {
+		this(chromosome.size(), chunkSize);
+		for (int i = 0; i < length; i++) {
+			chunks[i >>> shift][i & (chunkSize - 1)] = chromosome.getGene(i).copy();
+		}
+		Arrays.fill(owned, true);
+	}
+
+	public ChunkedChromosome(G seedGene, int genes) {
+		this(seedGene, genes, DEFAULT_CHUNK_SIZE, ThreadRandom.current());
+	}
+
+	/**
+	 * creates a chromosome of randomized genes
+	 * 
+	 * @param seedGene
+	 *            gene that will be randomized and copied for each gene
+	 * @param genes
+	 *            how many genes are in the chromosome
+	 * @param chunkSize
+	 *            how many genes are in each chunk, must be a power of two
+	 * @param random
+	 *            random number generator to use
+	 */
+	public ChunkedChromosome(G seedGene, int genes, int chunkSize, SplittableRandom random) {
+		this(genes, chunkSize);
+		for (int i = 0; i < length; i++) {
+			chunks[i >>> shift][i & (chunkSize - 1)] = seedGene.randomCopy(random);
+		}
+		Arrays.fill(owned, true);
+	}
+
+	/**
+	 * creates a chromosome with empty chunks that aren't owned
+	 */
+	private ChunkedChromosome(int length, int chunkSize) {
+		if (chunkSize <= 0 || Integer.bitCount(chunkSize) != 1)
+			throw new IllegalArgumentException("Chunk size must be a power of two (" + chunkSize + ")");
+
+		this.length = length;
+		this.shift = Integer.numberOfTrailingZeros(chunkSize);
+		this.chunks = new Object[(length + chunkSize - 1) >>> shift][];
+		this.owned = new boolean[chunks.length];
+
+		for (int c = 0; c < chunks.length; c++) {
+			chunks[c] = new Object[Math.min(chunkSize, length - (c << shift))];
+		}
+	}
+
+	/**
+	 * creates a copy that shares all of the chunks of the given chromosome
+	 */
+	private ChunkedChromosome(ChunkedChromosome<G> chromosome) {
+		length = chromosome.length;
+		shift = chromosome.shift;
+		chunks = chromosome.chunks.clone();
+		owned = new boolean[chunks.length];
+
+		// the chunks are shared now so neither side can change them in place
+		chromosome.owned = new boolean[chunks.length];
+
+		copyFingerprint(chromosome);
+	}
+
+	/**
+	 * creates a chromosome from chunks that aren't owned
+	 */
+	private ChunkedChromosome(int length, int shift, Object[][] chunks) {
+		this.length = length;
+		this.shift = shift;
+		this.chunks = chunks;
+		this.owned = new boolean[chunks.length];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public G getGene(int i) {
+		if (i < 0 || i >= length)
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + length);
+
+		return (G) chunks[i >>> shift][i & ((1 << shift) - 1)];
+	}
+
+	@Override
+	public int size() {
+		return length;
+	}
+
+	public int getChunkSize() {
+		return 1 << shift;
+	}
+
+	/**
+	 * copies the chromosome by sharing all of its chunks with the copy
+	 */
+	@Override
+	public ChunkedChromosome<G> copy() {
+		return new ChunkedChromosome<G>(this);
+	}
+
+	/**
+	 * the new chromosome uses the same chunk size
+	 */
+	@Override
+	public ChunkedChromosome<G> withGenes(List<G> genes) {
+		ChunkedChromosome<G> results = new ChunkedChromosome<G>(genes.size(), 1 << shift);
+		for (int i = 0; i < genes.size(); i++) {
+			results.chunks[i >>> shift][i & ((1 << shift) - 1)] = genes.get(i);
+		}
+		Arrays.fill(results.owned, true);
+		return results;
+	}
+
+	@Override
+	public void mutate(double rate, double severity, SplittableRandom r) {
+		// check if nothing can be mutated
+		if (!(rate > 0))
+			return;
+
+		// for low rates jump straight to each gene that will be mutated
+		if (Mutations.isSparse(rate)) {
+			double logMiss = Math.log1p(-rate);
+			int i = Mutations.nextLocus(-1, length, logMiss, r);
+			while (i < length) {
+				mutateGene(i, Mutations.severity(r.nextDouble(), severity), r);
+				i = Mutations.nextLocus(i, length, logMiss, r);
+			}
+			return;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if (r.nextDouble() < rate)
+				mutateGene(i, Mutations.severity(r.nextDouble(), severity), r);
+		}
+	}
+
+	/**
+	 * mutates a single gene, copying its chunk first if it is shared
+	 */
+	private void mutateGene(int i, double severity, SplittableRandom r) {
+		int c = i >>> shift;
+
+		// take a private copy of the chunk and its genes before changing it
+		if (!owned[c]) {
+			Object[] chunk = new Object[chunks[c].length];
+			for (int j = 0; j < chunk.length; j++) {
+				@SuppressWarnings("unchecked")
+				G gene = (G) chunks[c][j];
+				chunk[j] = gene.copy();
+			}
+			chunks[c] = chunk;
+			owned[c] = true;
+		}
+
+		G g = getGene(i);
+		long old = isFingerprinted() ? g.fingerprint() : 0;
+
+		// immutable genes give back a new gene to put in the chunk
+		G mutated = g.mutated(severity, r);
+		if (mutated != g)
+			chunks[c][i & ((1 << shift) - 1)] = mutated;
+
+		if (isFingerprinted())
+			geneChanged(i, old, mutated.fingerprint());
+	}
+
+	@Override
+	public ChunkedChromosome<G> breed(Chromosome<G> other, double mutationRate, double mutationSeverity,
+			SplittableRandom r) {
+		// chunks can only be shared with a mate that splits them the same way
+		ChunkedChromosome<G> mate = null;
+		if (other instanceof ChunkedChromosome && ((ChunkedChromosome<G>) other).shift == shift)
+			mate = (ChunkedChromosome<G>) other;
+
+		// work out how long the child is and how much both parents share
+		int childLength = breedLength(length, other.size(), r);
+		int common = Math.min(length, other.size());
+		Chromosome<G> larger = length > other.size() ? this : other;
+
+		ChunkedChromosome<G> child = new ChunkedChromosome<G>(childLength, 1 << shift);
+		for (int c = 0; c < child.chunks.length; c++) {
+			int start = c << shift;
+			int end = start + child.chunks[c].length;
+
+			// the child shares this chunk's genes with the parents, so neither
+			// parent can change them in place any more
+			if (c < owned.length)
+				owned[c] = false;
+			if (mate != null && c < mate.owned.length)
+				mate.owned[c] = false;
+
+			// if both parents have the same chunk the child can have it too
+			if (mate != null && end <= common && chunks[c] == mate.chunks[c]) {
+				child.chunks[c] = chunks[c];
+				continue;
+			}
+
+			// otherwise take each gene from either parent with 50%
+			// probability, the genes are shared so the chunk isn't owned.
+			// A mate that isn't chunked can change its genes in place so its
+			// genes are copied
+			Object[] chunk = child.chunks[c];
+			long choices = 0;
+			for (int i = start; i < end; i++) {
+				boolean fromThis;
+				if (i >= common)
+					fromThis = larger == this;
+				else {
+					if (((i - start) & 63) == 0)
+						choices = r.nextLong();
+					fromThis = (choices & 1) != 0;
+					choices >>>= 1;
+				}
+				if (fromThis)
+					chunk[i - start] = getGene(i);
+				else
+					chunk[i - start] = mate != null ? mate.getGene(i) : other.getGene(i).copy();
+			}
+		}
+
+		// mutate the child with the given rates
+		child.mutate(mutationRate, mutationSeverity, r);
+
+		return child;
+	}
+
+	public String toString() {
+		StringBuilder results = new StringBuilder("[");
+		for (int i = 0; i < length; i++) {
+			if (i > 0)
+				results.append(", ");
+			results.append(getGene(i));
+		}
+		return results.append(']').toString();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		@SuppressWarnings("unchecked")
+		ChunkedChromosome<G> other = (ChunkedChromosome<G>) obj;
+		// different fingerprints mean they can't be equal
+		if (fingerprint() != other.fingerprint())
+			return false;
+		if (length != other.length)
+			return false;
+
+		// chunked differently so just compare the genes
+		if (shift != other.shift) {
+			for (int i = 0; i < length; i++) {
+				if (!getGene(i).equals(other.getGene(i)))
+					return false;
+			}
+			return true;
+		}
+
+		for (int c = 0; c < chunks.length; c++) {
+			// shared chunks are always equal
+			if (chunks[c] != other.chunks[c] && !Arrays.equals(chunks[c], other.chunks[c]))
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,84 @@
+package ggenetic.genes;
+
+/**
+ * helpers for the 64 bit fingerprints of genes, chromosomes and genomes. A
+ * chromosome's fingerprint is the xor of a mixed value for each gene and its
+ * position, so when one gene changes the fingerprint can be updated by taking
+ * out the old value and putting in the new one. Equal objects always have
+ * equal fingerprints. Different objects only share a fingerprint with a
+ * chance of about one in 2^64 if every gene's fingerprint uses all 64 bits,
+ * a gene whose fingerprint is made from a 32 bit hash code makes collisions
+ * far more likely, see {@link Gene#fingerprint()}.
+ */
+public final class Fingerprints {
+
+	// the golden ratio as a 64 bit fraction, used to spread out positions
+	private static final long GOLDEN = 0x9e3779b97f4a7c15L;
+
+	private Fingerprints() {}
+
+	/**
+	 * scrambles the bits of a value so each input bit affects every output
+	 * bit, this is the finalizer from MurmurHash3
+	 * 
+	 * @param value
+	 *            value to scramble
+	 * @return the scrambled value
+	 */
+	public static long mix(long value) {
+		value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+		value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return value ^ (value >>> 33);
+	}
+
+	/**
+	 * adds another value to a fingerprint, genes with more than one field
+	 * start with the mix of the first field and combine in the others
+	 * 
+	 * @param fingerprint
+	 *            fingerprint so far
+	 * @param value
+	 *            value to add
+	 * @return fingerprint with the value added
+	 */
+	public static long combine(long fingerprint, long value) {
+		return mix(fingerprint ^ value);
+	}
+
+	/**
+	 * gives the part of a fingerprint that comes from the value at the given
+	 * position
+	 * 
+	 * @param value
+	 *            fingerprint of the value at the position
+	 * @param index
+	 *            position of the value
+	 * @return part of the fingerprint for the value at the position
+	 */
+	public static long locus(long value, int index) {
+		return mix(value + (index + 1) * GOLDEN);
+	}
+
+	/**
+	 * gives the starting fingerprint for a sequence of the given length, the
+	 * part from each position is xored into this
+	 * 
+	 * @param length
+	 *            length of the sequence
+	 * @return starting fingerprint
+	 */
+	public static long empty(int length) {
+		return mix(~length);
+	}
+
+	/**
+	 * folds a fingerprint into an int for hashCode
+	 * 
+	 * @param fingerprint
+	 *            fingerprint to fold
+	 * @return hash code
+	 */
+	public static int hash(long fingerprint) {
+		return (int) (fingerprint ^ (fingerprint >>> 32));
+	}
+}
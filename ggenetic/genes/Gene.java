@@ -1,5 +1,8 @@
 package ggenetic.genes;
 
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
 public abstract class Gene<G extends Gene<G>> {
 
 	/**
@@ -9,6 +12,19 @@ public abstract class Gene<G extends Gene<G>> {
 	 */
 	public abstract G copy();
 
+	/**
+	 * makes this gene the same as the other gene, this is used to reuse genes
+	 * instead of copying them. Genes must override this to be used in a
+	 * population that recycles its creatures, by default it isn't supported.
+	 * 
+	 * @param other
+	 *            gene to copy
+	 * @see ggenetic.creature.Population#setRecycling(boolean)
+	 */
+	public void copyFrom(G other) {
+		throw new UnsupportedOperationException(getClass().getSimpleName() + " can't be copied in place");
+	}
+
 	/**
 	 * mutates the current gene with the given mutation rate, the rate will be
 	 * from 0 to 1 uniform to determine if it is a rare mutation or a common
@@ -19,11 +35,142 @@ public abstract class Gene<G extends Gene<G>> {
 	 */
 	public abstract void mutate(double mutationSeverity);
 
+	/**
+	 * mutates the current gene using the given random number generator, genes
+	 * should override this so their mutations can be reproduced from a seed,
+	 * by default this just calls {@link #mutate(double)}
+	 * 
+	 * @param mutationSeverity
+	 *            how severe the mutation is
+	 * @param random
+	 *            random number generator to use for the mutation
+	 */
+	public void mutate(double mutationSeverity, SplittableRandom random) {
+		mutate(mutationSeverity);
+	}
+
+	/**
+	 * mutates the gene and gives the gene that should take its place, by
+	 * default this mutates the gene in place and gives back the same gene.
+	 * Immutable genes give back a different gene instead.
+	 * 
+	 * @param mutationSeverity
+	 *            how severe the mutation is
+	 * @param random
+	 *            random number generator to use for the mutation
+	 * @return the mutated gene
+	 * @see ImmutableGene
+	 */
+	@SuppressWarnings("unchecked")
+	public G mutated(double mutationSeverity, SplittableRandom random) {
+		mutate(mutationSeverity, random);
+		return (G) this;
+	}
+
 	/**
 	 * randomizes the current gene
 	 */
 	public abstract void randomize();
 
+	/**
+	 * randomizes the current gene using the given random number generator,
+	 * genes should override this so they can be reproduced from a seed, by
+	 * default this just calls {@link #randomize()}
+	 * 
+	 * @param random
+	 *            random number generator to use
+	 */
+	public void randomize(SplittableRandom random) {
+		randomize();
+	}
+
+	/**
+	 * gives a random gene of the same kind as this one, by default this
+	 * randomizes this gene and gives a copy of it
+	 * 
+	 * @param random
+	 *            random number generator to use
+	 * @return a random gene
+	 */
+	public G randomCopy(SplittableRandom random) {
+		randomize(random);
+		return copy();
+	}
+
+	/**
+	 * checks if the gene can never change, immutable genes are shared instead
+	 * of copied
+	 * 
+	 * @return if the gene is immutable
+	 */
+	public boolean isImmutable() {
+		return false;
+	}
+
+	/**
+	 * gives a 64 bit fingerprint of the gene, genes that are equal must have
+	 * the same fingerprint. Fitness caches trust fingerprints, so genes should
+	 * override this to mix in all of their state with
+	 * {@link Fingerprints#mix(long)} and
+	 * {@link Fingerprints#combine(long, long)}. By default this is made from
+	 * the hash code, which only has 32 bits and can be the same for different
+	 * genes.
+	 * 
+	 * @return fingerprint of the gene
+	 */
+	public long fingerprint() {
+		return Fingerprints.mix(hashCode());
+	}
+
+	/**
+	 * gives how many bytes {@link #encode(ByteBuffer)} writes for this gene.
+	 * Genes that can be sent between processes or saved must override this
+	 * along with {@link #encode(ByteBuffer)} and {@link #decode(ByteBuffer)},
+	 * by default genes can't be encoded.
+	 * 
+	 * @return size of the encoded gene in bytes
+	 * @see GenomeCodec
+	 */
+	public int encodedSize() {
+		throw new UnsupportedOperationException(getClass().getSimpleName() + " can't be encoded");
+	}
+
+	/**
+	 * writes the state of the gene to the buffer. Anything every gene of the
+	 * chromosome shares, like the range of values, doesn't need to be written
+	 * as decoding starts from a copy of a prototype gene.
+	 * 
+	 * @param buffer
+	 *            buffer to write to
+	 */
+	public void encode(ByteBuffer buffer) {
+		throw new UnsupportedOperationException(getClass().getSimpleName() + " can't be encoded");
+	}
+
+	/**
+	 * reads the state written by {@link #encode(ByteBuffer)} into this gene
+	 * 
+	 * @param buffer
+	 *            buffer to read from
+	 */
+	public void decode(ByteBuffer buffer) {
+		throw new UnsupportedOperationException(getClass().getSimpleName() + " can't be decoded");
+	}
+
+	/**
+	 * reads a gene written by {@link #encode(ByteBuffer)} into a copy of this
+	 * gene, immutable genes override this to give back the matching gene
+	 * 
+	 * @param buffer
+	 *            buffer to read from
+	 * @return the decoded gene
+	 */
+	public G decodeCopy(ByteBuffer buffer) {
+		G results = copy();
+		results.decode(buffer);
+		return results;
+	}
+
 	public abstract boolean equals(Object obj);
 
 	public abstract int hashCode();
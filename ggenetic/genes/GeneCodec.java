@@ -0,0 +1,74 @@
+package ggenetic.genes;
+
+import java.util.SplittableRandom;
+
+/**
+ * packs a gene into the low bits of a long so chromosomes of it can be stored
+ * as arrays of longs, see {@link PackedChromosome}. Only genes with a small
+ * number of values can be packed, a gene must fit in 64 bits and every gene
+ * with the same value must pack to the same bits.
+ *
+ * Only {@link #bits()}, {@link #pack(Gene)} and {@link #unpack(long)} have to
+ * be implemented, the rest go through the gene by default but can be
+ * overridden to work on the packed bits directly.
+ *
+ * @param <G>
+ *            type of gene
+ */
+public interface GeneCodec<G extends Gene<G>> {
+
+	/**
+	 * gets how many bits a packed gene takes, from 1 to 64
+	 *
+	 * @return bits in a packed gene
+	 */
+	int bits();
+
+	/**
+	 * packs a gene, any bits above {@link #bits()} must be 0
+	 *
+	 * @param gene
+	 *            gene to pack
+	 * @return the packed gene
+	 */
+	long pack(G gene);
+
+	/**
+	 * makes a gene from its packed bits
+	 *
+	 * @param bits
+	 *            the packed gene
+	 * @return the gene
+	 */
+	G unpack(long bits);
+
+	/**
+	 * mutates a packed gene
+	 *
+	 * @param bits
+	 *            the packed gene
+	 * @param mutationSeverity
+	 *            how severe the mutation is
+	 * @param random
+	 *            random number generator to use
+	 * @return the packed mutated gene
+	 * @see Gene#mutated(double, SplittableRandom)
+	 */
+	default long mutate(long bits, double mutationSeverity, SplittableRandom random) {
+		return pack(unpack(bits).mutated(mutationSeverity, random));
+	}
+
+	/**
+	 * gives the fingerprint of a packed gene, this must be the same as the
+	 * fingerprint of the unpacked gene so packed chromosomes have the same
+	 * fingerprints as other chromosomes with the same genes
+	 *
+	 * @param bits
+	 *            the packed gene
+	 * @return fingerprint of the gene
+	 * @see Gene#fingerprint()
+	 */
+	default long fingerprint(long bits) {
+		return unpack(bits).fingerprint();
+	}
+}
@@ -1,6 +1,9 @@
 package ggenetic.genes;
 
 import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import ggenetic.random.ThreadRandom;
 
 public class Genome<G extends Gene<G>> {
 	private final ArrayList<Chromosome<G>> chromosomes;
@@ -12,7 +15,7 @@ public class Genome<G extends Gene<G>> {
 	public Genome(Genome<G> genome) {
 		chromosomes = new ArrayList<Chromosome<G>>();
 		for (Chromosome<G> chromosome : genome.chromosomes) {
-			chromosomes.add(new Chromosome<G>(chromosome));
+			chromosomes.add(chromosome.copy());
 		}
 	}
 
@@ -27,12 +30,28 @@ public class Genome<G extends Gene<G>> {
 	 * @return a copied genome with some mutations in it
 	 */
 	public Genome<G> copyWithMutation(double mutationRate, double mutationSeverity) {
+		return copyWithMutation(mutationRate, mutationSeverity, ThreadRandom.current());
+	}
+
+	/**
+	 * copies the current genome and adds mutations using the given random
+	 * number generator
+	 * 
+	 * @param mutationRate
+	 *            how likely a gene is to mutate
+	 * @param mutationSeverity
+	 *            how severe the mutation is
+	 * @param random
+	 *            random number generator to use
+	 * @return a copied genome with some mutations in it
+	 */
+	public Genome<G> copyWithMutation(double mutationRate, double mutationSeverity, SplittableRandom random) {
 		// copy the current genome
 		Genome<G> copy = new Genome<G>(this);
 
 		// mutate all of the chromosomes in the genome
 		for (Chromosome<G> chromosome : copy.chromosomes) {
-			chromosome.mutate(mutationRate, mutationSeverity);
+			chromosome.mutate(mutationRate, mutationSeverity, random);
 		}
 
 		// return the copy
@@ -40,6 +59,25 @@ public class Genome<G extends Gene<G>> {
 	}
 
 	public Genome<G> breedWithMutation(Genome<G> other, double mutationRate, double mutationSeverity) {
+		return breedWithMutation(other, mutationRate, mutationSeverity, ThreadRandom.current());
+	}
+
+	/**
+	 * breeds the current genome with the other genome chromosome by
+	 * chromosome, using the given random number generator
+	 * 
+	 * @param other
+	 *            genome to breed with
+	 * @param mutationRate
+	 *            how likely a gene is to mutate
+	 * @param mutationSeverity
+	 *            how severe the mutation is
+	 * @param random
+	 *            random number generator to use
+	 * @return the bred genome
+	 */
+	public Genome<G> breedWithMutation(Genome<G> other, double mutationRate, double mutationSeverity,
+			SplittableRandom random) {
 		// make sure they have the same number of chromosomes
 		if (other.chromosomes.size() != chromosomes.size())
 			throw new IllegalArgumentException("Two genomes need to have the same number of chromosomes to breed!");
@@ -49,13 +87,92 @@ public class Genome<G extends Gene<G>> {
 
 		// loop through each of the chromosomes, breed and add to the results
 		for (int i = 0; i < chromosomes.size(); i++) {
-			results.add(chromosomes.get(i).breed(other.chromosomes.get(i), mutationRate, mutationSeverity));
+			results.add(chromosomes.get(i).breed(other.chromosomes.get(i), mutationRate, mutationSeverity, random));
 		}
 
 		// return a new genome with the given chromosomes
 		return new Genome<>(results);
 	}
 
+	/**
+	 * copies the current genome into the target genome and adds mutations,
+	 * the target's chromosomes and genes are reused where they can be. This
+	 * gives the same results as
+	 * {@link #copyWithMutation(double, double, SplittableRandom)}.
+	 * 
+	 * @param target
+	 *            genome to overwrite, it must not be this genome
+	 * @param mutationRate
+	 *            how likely a gene is to mutate
+	 * @param mutationSeverity
+	 *            how severe the mutation is
+	 * @param random
+	 *            random number generator to use
+	 * @see Chromosome#copyInto(Chromosome)
+	 */
+	public void copyWithMutationInto(Genome<G> target, double mutationRate, double mutationSeverity,
+			SplittableRandom random) {
+		if (target == this)
+			throw new IllegalArgumentException("A genome can't be copied into itself!");
+
+		for (int i = 0; i < chromosomes.size(); i++) {
+			Chromosome<G> chromosome = chromosomes.get(i);
+			setChromosome(target, i, i < target.size() ? chromosome.copyInto(target.chromosomes.get(i))
+					: chromosome.copy());
+		}
+		target.chromosomes.subList(chromosomes.size(), target.size()).clear();
+
+		for (Chromosome<G> chromosome : target.chromosomes) {
+			chromosome.mutate(mutationRate, mutationSeverity, random);
+		}
+	}
+
+	/**
+	 * breeds the current genome with the other genome into the target genome,
+	 * the target's chromosomes and genes are reused where they can be. This
+	 * gives the same results as
+	 * {@link #breedWithMutation(Genome, double, double, SplittableRandom)}.
+	 * 
+	 * @param other
+	 *            genome to breed with
+	 * @param target
+	 *            genome to overwrite, it must not be either parent
+	 * @param mutationRate
+	 *            how likely a gene is to mutate
+	 * @param mutationSeverity
+	 *            how severe the mutation is
+	 * @param random
+	 *            random number generator to use
+	 * @see Chromosome#breedInto(Chromosome, Chromosome, double, double,
+	 *      SplittableRandom)
+	 */
+	public void breedWithMutationInto(Genome<G> other, Genome<G> target, double mutationRate,
+			double mutationSeverity, SplittableRandom random) {
+		// make sure they have the same number of chromosomes
+		if (other.chromosomes.size() != chromosomes.size())
+			throw new IllegalArgumentException("Two genomes need to have the same number of chromosomes to breed!");
+		if (target == this || target == other)
+			throw new IllegalArgumentException("A genome can't be bred into one of its parents!");
+
+		for (int i = 0; i < chromosomes.size(); i++) {
+			Chromosome<G> chromosome = chromosomes.get(i);
+			Chromosome<G> mate = other.chromosomes.get(i);
+			setChromosome(target, i,
+					i < target.size()
+							? chromosome.breedInto(mate, target.chromosomes.get(i), mutationRate, mutationSeverity,
+									random)
+							: chromosome.breed(mate, mutationRate, mutationSeverity, random));
+		}
+		target.chromosomes.subList(chromosomes.size(), target.size()).clear();
+	}
+
+	private static <G extends Gene<G>> void setChromosome(Genome<G> genome, int i, Chromosome<G> chromosome) {
+		if (i < genome.chromosomes.size())
+			genome.chromosomes.set(i, chromosome);
+		else
+			genome.chromosomes.add(chromosome);
+	}
+
 	/**
 	 * gets the chromosome at the given index of the genome
 	 * 
@@ -67,6 +184,30 @@ public class Genome<G extends Gene<G>> {
 		return chromosomes.get(i);
 	}
 
+	/**
+	 * gets how many chromosomes are in the genome
+	 * 
+	 * @return number of chromosomes
+	 */
+	public int size() {
+		return chromosomes.size();
+	}
+
+	/**
+	 * gives a 64 bit fingerprint of the genome made from the fingerprints of
+	 * its chromosomes, equal genomes have the same fingerprint
+	 * 
+	 * @return fingerprint of the genome
+	 * @see Chromosome#fingerprint()
+	 */
+	public long fingerprint() {
+		long results = Fingerprints.empty(chromosomes.size());
+		for (int i = 0; i < chromosomes.size(); i++) {
+			results ^= Fingerprints.locus(chromosomes.get(i).fingerprint(), i);
+		}
+		return results;
+	}
+
 	public String toString() {
 		String results = "";
 
@@ -80,10 +221,7 @@ public class Genome<G extends Gene<G>> {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((chromosomes == null) ? 0 : chromosomes.hashCode());
-		return result;
+		return Fingerprints.hash(fingerprint());
 	}
 
 	@Override
@@ -96,6 +234,9 @@ public class Genome<G extends Gene<G>> {
 			return false;
 		@SuppressWarnings("unchecked")
 		Genome<G> other = (Genome<G>) obj;
+		// different fingerprints mean they can't be equal
+		if (fingerprint() != other.fingerprint())
+			return false;
 		if (chromosomes == null) {
 			if (other.chromosomes != null)
 				return false;
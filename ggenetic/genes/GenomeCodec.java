@@ -0,0 +1,133 @@
+package ggenetic.genes;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * turns genomes into bytes and back so they can be sent to other processes
+ * or saved. A genome is written as the number of chromosomes followed by each
+ * chromosome, and a chromosome as the number of genes followed by each gene
+ * as written by {@link Gene#encode(ByteBuffer)}. Genes are decoded with
+ * {@link Gene#decodeCopy(ByteBuffer)} on the prototype gene, so it must be set
+ * up the same way as the genes that were encoded.
+ *
+ * Chromosomes are decoded as plain {@link Chromosome}s unless the codec is
+ * given a prototype genome, then chromosome i is made with
+ * {@link Chromosome#withGenes(java.util.List)} on chromosome i of the
+ * prototype so it comes back as the same type with the same settings. A
+ * creature whose chromosomes only breed with their own type, like the
+ * primitive chromosomes, needs a prototype genome so decoded creatures can
+ * breed with the rest of the population.
+ *
+ * @param <G>
+ *            type of gene
+ */
+public class GenomeCodec<G extends Gene<G>> {
+
+	private final G prototype;
+
+	// chromosomes past the end of this are decoded as plain chromosomes
+	private final Genome<G> layout;
+
+	/**
+	 * creates a codec that decodes genes starting from copies of the given
+	 * gene into plain chromosomes
+	 * 
+	 * @param prototype
+	 *            gene to copy for each decoded gene
+	 */
+	public GenomeCodec(G prototype) {
+		this(prototype, new Genome<G>(new ArrayList<>()));
+	}
+
+	/**
+	 * creates a codec that decodes genes starting from copies of the given
+	 * gene into chromosomes of the same types as the prototype genome's
+	 * 
+	 * @param prototype
+	 *            gene to copy for each decoded gene
+	 * @param layout
+	 *            genome whose chromosomes are used to make the decoded
+	 *            chromosomes, only its chromosomes' types and settings are
+	 *            used
+	 */
+	public GenomeCodec(G prototype, Genome<G> layout) {
+		this.prototype = prototype;
+		this.layout = layout;
+	}
+
+	/**
+	 * gives how many bytes {@link #encode(Genome, ByteBuffer)} writes for the
+	 * genome
+	 * 
+	 * @param genome
+	 *            genome to measure
+	 * @return size of the encoded genome in bytes
+	 */
+	public int encodedSize(Genome<G> genome) {
+		int results = Integer.BYTES;
+		for (int i = 0; i < genome.size(); i++) {
+			Chromosome<G> chromosome = genome.getChromosome(i);
+			results += Integer.BYTES;
+			for (int j = 0; j < chromosome.size(); j++) {
+				results += chromosome.getGene(j).encodedSize();
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * writes the genome to the buffer, the buffer must have at least
+	 * {@link #encodedSize(Genome)} bytes remaining
+	 * 
+	 * @param genome
+	 *            genome to write
+	 * @param buffer
+	 *            buffer to write to
+	 */
+	public void encode(Genome<G> genome, ByteBuffer buffer) {
+		buffer.putInt(genome.size());
+		for (int i = 0; i < genome.size(); i++) {
+			Chromosome<G> chromosome = genome.getChromosome(i);
+			buffer.putInt(chromosome.size());
+			for (int j = 0; j < chromosome.size(); j++) {
+				chromosome.getGene(j).encode(buffer);
+			}
+		}
+	}
+
+	/**
+	 * reads a genome written by {@link #encode(Genome, ByteBuffer)}
+	 * 
+	 * @param buffer
+	 *            buffer to read from
+	 * @return the decoded genome
+	 * @throws IllegalArgumentException
+	 *             if the buffer doesn't hold a valid genome
+	 */
+	public Genome<G> decode(ByteBuffer buffer) {
+		int chromosomes = readCount(buffer);
+		ArrayList<Chromosome<G>> results = new ArrayList<>(chromosomes);
+		for (int i = 0; i < chromosomes; i++) {
+			int genes = readCount(buffer);
+			ArrayList<G> chromosome = new ArrayList<>(genes);
+			for (int j = 0; j < genes; j++) {
+				chromosome.add(prototype.decodeCopy(buffer));
+			}
+			results.add(i < layout.size() ? layout.getChromosome(i).withGenes(chromosome)
+					: new Chromosome<G>(chromosome));
+		}
+		return new Genome<G>(results);
+	}
+
+	/**
+	 * reads a count and makes sure it could fit in the rest of the buffer so
+	 * a corrupt count can't make a huge allocation
+	 */
+	private static int readCount(ByteBuffer buffer) {
+		int count = buffer.getInt();
+		if (count < 0 || count > buffer.remaining())
+			throw new IllegalArgumentException("Invalid count in encoded genome (" + count + ")");
+		return count;
+	}
+}
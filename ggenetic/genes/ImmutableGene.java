@@ -0,0 +1,95 @@
+package ggenetic.genes;
+
+import java.util.SplittableRandom;
+
+/**
+ * a gene whose value never changes, for genes with a small number of possible
+ * values there can be one shared instance of each value. Copying gives back
+ * the same gene and mutating gives back the gene for the new value, so
+ * copying a chromosome only copies references and equal genes are the same
+ * object.
+ * 
+ * Each value has an id which is used for the hash code and fingerprint, the
+ * ids should stay the same between runs.
+ *
+ * @param <G>
+ *            type of gene
+ */
+public abstract class ImmutableGene<G extends ImmutableGene<G>> extends Gene<G> {
+
+	private final int id;
+
+	/**
+	 * creates the gene for the value with the given id, there should only
+	 * ever be one gene made for each id
+	 * 
+	 * @param id
+	 *            id of the value
+	 */
+	protected ImmutableGene(int id) {
+		this.id = id;
+	}
+
+	public final int getId() {
+		return id;
+	}
+
+	/**
+	 * immutable genes are shared so this gives back the same gene
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public final G copy() {
+		return (G) this;
+	}
+
+	@Override
+	public abstract G mutated(double mutationSeverity, SplittableRandom random);
+
+	@Override
+	public abstract G randomCopy(SplittableRandom random);
+
+	@Override
+	public final void mutate(double mutationSeverity) {
+		throw new UnsupportedOperationException("Immutable genes can't be mutated in place, use mutated instead");
+	}
+
+	@Override
+	public final void mutate(double mutationSeverity, SplittableRandom random) {
+		throw new UnsupportedOperationException("Immutable genes can't be mutated in place, use mutated instead");
+	}
+
+	@Override
+	public final void randomize() {
+		throw new UnsupportedOperationException("Immutable genes can't be randomized in place, use randomCopy instead");
+	}
+
+	@Override
+	public final void randomize(SplittableRandom random) {
+		throw new UnsupportedOperationException("Immutable genes can't be randomized in place, use randomCopy instead");
+	}
+
+	@Override
+	public final boolean isImmutable() {
+		return true;
+	}
+
+	@Override
+	public final long fingerprint() {
+		return Fingerprints.mix(id);
+	}
+
+	@Override
+	public final int hashCode() {
+		return id;
+	}
+
+	/**
+	 * there is only one gene for each value so genes are only equal to
+	 * themselves
+	 */
+	@Override
+	public final boolean equals(Object obj) {
+		return this == obj;
+	}
+}
@@ -0,0 +1,80 @@
+package ggenetic.genes;
+
+import java.util.SplittableRandom;
+
+/**
+ * helpers shared by the chromosomes for deciding which genes are mutated and
+ * how severe each mutation is.
+ */
+public final class Mutations {
+
+	/**
+	 * rates below this skip straight from one mutated gene to the next instead
+	 * of drawing a random number for every gene, one skip costs about as much
+	 * as drawing a couple dozen random numbers
+	 */
+	public static final double SPARSE_RATE = .05;
+
+	private Mutations() {}
+
+	/**
+	 * checks if a mutation rate is low enough that mutated genes should be
+	 * found by skipping with {@link #nextLocus(int, int, double, SplittableRandom)}
+	 * 
+	 * @param rate
+	 *            percent chance of mutation for a given gene
+	 * @return if the rate should use skipping
+	 */
+	public static boolean isSparse(double rate) {
+		return rate < SPARSE_RATE;
+	}
+
+	/**
+	 * finds the next gene that will be mutated after the current one, the
+	 * number of genes skipped over follows a geometric distribution so this
+	 * gives the same result as checking each gene with the given rate.
+	 * 
+	 * @param current
+	 *            index of the last gene that was mutated, or -1 to start
+	 * @param length
+	 *            how many genes there are
+	 * @param logMiss
+	 *            natural log of the chance a gene isn't mutated, which is
+	 *            Math.log1p(-rate), this must be negative
+	 * @param r
+	 *            random number generator to use
+	 * @return index of the next gene to mutate, or length if there are no more
+	 */
+	public static int nextLocus(int current, int length, double logMiss, SplittableRandom r) {
+		// number of genes skipped before the next mutation, using 1 - u so the
+		// log is never taken of 0
+		double skipped = Math.floor(Math.log(1 - r.nextDouble()) / logMiss);
+
+		// compare as a double so huge skips can't overflow
+		if (skipped >= length - current - 1)
+			return length;
+		return current + 1 + (int) skipped;
+	}
+
+	/**
+	 * converts a uniform random number into how severe a mutation is. This is
+	 * the percent point function of the pdf y/(E^y - 1))*E^(x*y), which is a
+	 * proper pdf from 0 to 1 with increasing probability in the 1 range with
+	 * increasing severity, and increasing probability in the 0 range with
+	 * decreasing severity
+	 * 
+	 * @param uniform
+	 *            random number from 0 to 1
+	 * @param severity
+	 *            severity of the mutations
+	 * @return severity of this mutation from 0 to 1
+	 */
+	public static double severity(double uniform, double severity) {
+		// check if severity is 0, in that case use the limit of the function as
+		// it is discontinuous.
+		if (severity == 0)
+			return uniform;
+
+		return Math.log(1 - uniform + Math.exp(severity) * uniform) / severity;
+	}
+}
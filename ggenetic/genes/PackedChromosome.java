@@ -0,0 +1,289 @@
+package ggenetic.genes;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import ggenetic.random.ThreadRandom;
+
+/**
+ * a chromosome that stores its genes packed into an array of longs with a
+ * {@link GeneCodec}, as many genes as fit go in each long and no gene is
+ * split between two longs. Mutating, breeding, copying and comparing work on
+ * the packed bits so no genes are made, breeding with another packed
+ * chromosome that uses the same codec picks the genes from each parent a whole
+ * long at a time.
+ *
+ * {@link #getGene(int)} unpacks a new gene every time it is called, changing
+ * it does not change the chromosome.
+ *
+ * @param <G>
+ *            type of gene in the chromosome
+ */
+public class PackedChromosome<G extends Gene<G>> extends Chromosome<G> {
+
+	private final GeneCodec<G> codec;
+
+	private final int bits;
+
+	// genes in each long
+	private final int perWord;
+
+	// the bits of a single gene
+	private final long mask;
+
+	private final int length;
+
+	// the bits past the last gene are always 0 so the arrays can be compared
+	// directly
+	private final long[] words;
+
+	/**
+	 * creates a packed copy of the given chromosome
+	 *
+	 * @param codec
+	 *            codec to pack the genes with
+	 * @param chromosome
+	 *            chromosome to copy the genes from
+	 */
+	public PackedChromosome(GeneCodec<G> codec, Chromosome<G> chromosome) {
+		this(codec, chromosome.size());
+		for (int i = 0; i < length; i++) {
+			set(i, codec.pack(chromosome.getGene(i)));
+		}
+	}
+
+	public PackedChromosome(GeneCodec<G> codec, G seedGene, int genes) {
+		this(codec, seedGene, genes, ThreadRandom.current());
+	}
+
+	/**
+	 * creates a chromosome of randomized genes
+	 *
+	 * @param codec
+	 *            codec to pack the genes with
+	 * @param seedGene
+	 *            gene that will be randomized and packed for each gene
+	 * @param genes
+	 *            how many genes are in the chromosome
+	 * @param random
+	 *            random number generator to use
+	 */
+	public PackedChromosome(GeneCodec<G> codec, G seedGene, int genes, SplittableRandom random) {
+		this(codec, genes);
+		for (int i = 0; i < length; i++) {
+			set(i, codec.pack(seedGene.randomCopy(random)));
+		}
+	}
+
+	/**
+	 * creates a chromosome with every gene's bits set to 0
+	 */
+	private PackedChromosome(GeneCodec<G> codec, int length) {
+		int bits = codec.bits();
+		if (bits <= 0 || bits > Long.SIZE)
+			throw new IllegalArgumentException("Packed genes must have from 1 to 64 bits (" + bits + ")");
+
+		this.codec = codec;
+		this.bits = bits;
+		this.perWord = Long.SIZE / bits;
+		this.mask = lowBits(bits);
+		this.length = length;
+		this.words = new long[(length + perWord - 1) / perWord];
+	}
+
+	private PackedChromosome(PackedChromosome<G> chromosome) {
+		codec = chromosome.codec;
+		bits = chromosome.bits;
+		perWord = chromosome.perWord;
+		mask = chromosome.mask;
+		length = chromosome.length;
+		words = chromosome.words.clone();
+
+		copyFingerprint(chromosome);
+	}
+
+	public GeneCodec<G> getCodec() {
+		return codec;
+	}
+
+	/**
+	 * gets the packed bits of the gene at the given position
+	 *
+	 * @param i
+	 *            index to look at
+	 * @return the packed gene
+	 */
+	public long getPacked(int i) {
+		if (i < 0 || i >= length)
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + length);
+
+		return get(i);
+	}
+
+	@Override
+	public G getGene(int i) {
+		return codec.unpack(getPacked(i));
+	}
+
+	@Override
+	public int size() {
+		return length;
+	}
+
+	@Override
+	public PackedChromosome<G> copy() {
+		return new PackedChromosome<G>(this);
+	}
+
+	/**
+	 * the new chromosome packs its genes with the same codec
+	 */
+	@Override
+	public PackedChromosome<G> withGenes(List<G> genes) {
+		PackedChromosome<G> results = new PackedChromosome<G>(codec, genes.size());
+		for (int i = 0; i < genes.size(); i++) {
+			results.set(i, codec.pack(genes.get(i)));
+		}
+		return results;
+	}
+
+	@Override
+	public void mutate(double rate, double severity, SplittableRandom r) {
+		// check if nothing can be mutated
+		if (!(rate > 0))
+			return;
+
+		// for low rates jump straight to each gene that will be mutated
+		if (Mutations.isSparse(rate)) {
+			double logMiss = Math.log1p(-rate);
+			int i = Mutations.nextLocus(-1, length, logMiss, r);
+			while (i < length) {
+				mutateGene(i, Mutations.severity(r.nextDouble(), severity), r);
+				i = Mutations.nextLocus(i, length, logMiss, r);
+			}
+			return;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if (r.nextDouble() < rate)
+				mutateGene(i, Mutations.severity(r.nextDouble(), severity), r);
+		}
+	}
+
+	private void mutateGene(int i, double severity, SplittableRandom r) {
+		long old = get(i);
+		long mutated = codec.mutate(old, severity, r);
+		set(i, mutated);
+
+		if (isFingerprinted())
+			geneChanged(i, codec.fingerprint(old), codec.fingerprint(mutated));
+	}
+
+	@Override
+	public PackedChromosome<G> breed(Chromosome<G> other, double mutationRate, double mutationSeverity,
+			SplittableRandom r) {
+		// work out how long the child is and how much both parents share
+		int childLength = breedLength(length, other.size(), r);
+		int common = Math.min(length, other.size());
+		Chromosome<G> larger = length > other.size() ? this : other;
+
+		PackedChromosome<G> child = new PackedChromosome<G>(codec, childLength);
+
+		// the words can only be mixed with a mate that packs the same way
+		if (other instanceof PackedChromosome && ((PackedChromosome<G>) other).codec.equals(codec)) {
+			PackedChromosome<G> mate = (PackedChromosome<G>) other;
+			for (int w = 0; w < child.words.length; w++) {
+				int start = w * perWord;
+				int end = Math.min(start + perWord, childLength);
+
+				// build a mask of the genes that come from this parent, each
+				// shared gene comes from either parent with 50% probability
+				long choices = start < common ? r.nextLong() : 0;
+				long pick = 0;
+				for (int i = start; i < end; i++) {
+					if (i < common ? (choices >>> (i - start) & 1) != 0 : larger == this)
+						pick |= mask << (i - start) * bits;
+				}
+
+				long first = w < words.length ? words[w] : 0;
+				long second = w < mate.words.length ? mate.words[w] : 0;
+				child.words[w] = (first & pick | second & ~pick) & lowBits((end - start) * bits);
+			}
+		} else {
+			long choices = 0;
+			for (int i = 0; i < childLength; i++) {
+				boolean fromThis;
+				if (i >= common)
+					fromThis = larger == this;
+				else {
+					if ((i & 63) == 0)
+						choices = r.nextLong();
+					fromThis = (choices & 1) != 0;
+					choices >>>= 1;
+				}
+				child.set(i, fromThis ? get(i) : codec.pack(other.getGene(i)));
+			}
+		}
+
+		// mutate the child with the given rates
+		child.mutate(mutationRate, mutationSeverity, r);
+
+		return child;
+	}
+
+	@Override
+	protected long computeFingerprint() {
+		long results = Fingerprints.empty(length);
+		for (int i = 0; i < length; i++) {
+			results ^= Fingerprints.locus(codec.fingerprint(get(i)), i);
+		}
+		return results;
+	}
+
+	private long get(int i) {
+		return words[i / perWord] >>> (i % perWord) * bits & mask;
+	}
+
+	private void set(int i, long value) {
+		if ((value & ~mask) != 0)
+			throw new IllegalArgumentException("Packed gene doesn't fit in " + bits + " bits (" + value + ")");
+
+		int shift = (i % perWord) * bits;
+		words[i / perWord] = words[i / perWord] & ~(mask << shift) | value << shift;
+	}
+
+	private static long lowBits(int bits) {
+		return bits >= Long.SIZE ? -1L : (1L << bits) - 1;
+	}
+
+	public String toString() {
+		StringBuilder results = new StringBuilder("[");
+		for (int i = 0; i < length; i++) {
+			if (i > 0)
+				results.append(", ");
+			results.append(getGene(i));
+		}
+		return results.append(']').toString();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		@SuppressWarnings("unchecked")
+		PackedChromosome<G> other = (PackedChromosome<G>) obj;
+		// different fingerprints mean they can't be equal
+		if (fingerprint() != other.fingerprint())
+			return false;
+		if (length != other.length)
+			return false;
+		if (!codec.equals(other.codec))
+			return false;
+		return Arrays.equals(words, other.words);
+	}
+}
@@ -0,0 +1,258 @@
+package ggenetic.genes.primitive;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import ggenetic.genes.Chromosome;
+import ggenetic.genes.Fingerprints;
+import ggenetic.genes.Mutations;
+import ggenetic.random.ThreadRandom;
+
+/**
+ * a chromosome of bits that are packed 64 to a long instead of a gene object
+ * per bit. Copying is a single array copy, breeding picks 64 bits at a time
+ * with a random mask, and a mutation flips a bit. Bits past the length are
+ * always kept as 0.
+ */
+public class BitChromosome extends Chromosome<BitGene> {
+
+	private final long[] words;
+
+	private final int length;
+
+	/**
+	 * creates a chromosome that uses the given array for its bits, the array
+	 * is not copied. Bit i is stored in word i / 64 at position i % 64.
+	 * 
+	 * @param words
+	 *            bits of the chromosome
+	 * @param length
+	 *            how many bits are in the chromosome
+	 */
+	public BitChromosome(long[] words, int length) {
+		if (words.length != wordsFor(length))
+			throw new IllegalArgumentException(
+					"Expected " + wordsFor(length) + " words for " + length + " bits but got " + words.length);
+
+		this.words = words;
+		this.length = length;
+
+		// clear anything past the end
+		trim(words, length);
+	}
+
+	public BitChromosome(int length) {
+		this(length, ThreadRandom.current());
+	}
+
+	/**
+	 * creates a chromosome of random bits
+	 * 
+	 * @param length
+	 *            how many bits there are
+	 * @param random
+	 *            random number generator to use
+	 */
+	public BitChromosome(int length, SplittableRandom random) {
+		this(randomWords(length, random), length);
+	}
+
+	public BitChromosome(BitChromosome chromosome) {
+		this(chromosome.words.clone(), chromosome.length);
+		copyFingerprint(chromosome);
+	}
+
+	/**
+	 * gets a copy of the gene at the given position, changing the gene does
+	 * not change the chromosome
+	 */
+	@Override
+	public BitGene getGene(int i) {
+		return new BitGene(get(i));
+	}
+
+	/**
+	 * gets the bit at the given position
+	 * 
+	 * @param i
+	 *            index to look at
+	 * @return if the bit is set
+	 */
+	public boolean get(int i) {
+		if (i < 0 || i >= length)
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + length);
+
+		return (words[i >>> 6] & (1L << i)) != 0;
+	}
+
+	/**
+	 * gets a copy of the words that hold the bits
+	 * 
+	 * @return array of the words
+	 */
+	public long[] toArray() {
+		return words.clone();
+	}
+
+	@Override
+	public int size() {
+		return length;
+	}
+
+	@Override
+	public BitChromosome copy() {
+		return new BitChromosome(this);
+	}
+
+	@Override
+	public BitChromosome withGenes(List<BitGene> genes) {
+		long[] results = new long[wordsFor(genes.size())];
+		for (int i = 0; i < genes.size(); i++) {
+			if (genes.get(i).getValue())
+				results[i >>> 6] |= 1L << i;
+		}
+		return new BitChromosome(results, genes.size());
+	}
+
+	@Override
+	public void mutate(double rate, double severity, SplittableRandom r) {
+		// check if nothing can be mutated
+		if (!(rate > 0))
+			return;
+
+		// for low rates jump straight to each bit that will be flipped
+		if (Mutations.isSparse(rate)) {
+			double logMiss = Math.log1p(-rate);
+			int i = Mutations.nextLocus(-1, length, logMiss, r);
+			while (i < length) {
+				flip(i);
+				i = Mutations.nextLocus(i, length, logMiss, r);
+			}
+			return;
+		}
+
+		// draw every flip first and then flip them all at once
+		long[] flips = new long[words.length];
+		for (int i = 0; i < length; i++) {
+			if (r.nextDouble() < rate)
+				flips[i >>> 6] |= 1L << i;
+		}
+		Kernels.flip(words, flips, words.length);
+
+		if (isFingerprinted()) {
+			for (int w = 0; w < words.length; w++) {
+				if (flips[w] != 0)
+					geneChanged(w, words[w] ^ flips[w], words[w]);
+			}
+		}
+	}
+
+	/**
+	 * flips a single bit keeping the fingerprint up to date, the fingerprint
+	 * is made from whole words so the word is the gene that changed
+	 */
+	private void flip(int i) {
+		long old = words[i >>> 6];
+		words[i >>> 6] ^= 1L << i;
+		geneChanged(i >>> 6, old, words[i >>> 6]);
+	}
+
+	@Override
+	protected long computeFingerprint() {
+		long results = Fingerprints.empty(length);
+		for (int w = 0; w < words.length; w++) {
+			results ^= Fingerprints.locus(words[w], w);
+		}
+		return results;
+	}
+
+	@Override
+	public BitChromosome breed(Chromosome<BitGene> other, double mutationRate, double mutationSeverity,
+			SplittableRandom r) {
+		if (!(other instanceof BitChromosome))
+			throw new IllegalArgumentException("A BitChromosome can only breed with another BitChromosome!");
+		BitChromosome mate = (BitChromosome) other;
+
+		// work out how long the child is and how much both parents share
+		int childLength = breedLength(length, mate.length, r);
+		int common = Math.min(length, mate.length);
+		long[] results = new long[wordsFor(childLength)];
+
+		// take each shared bit from either parent with 50% probability
+		Kernels.blend(words, mate.words, Kernels.crossoverMasks(common, r), results, wordsFor(common));
+
+		// the bits after the shared ones come from the longer parent
+		long[] larger = length > mate.length ? words : mate.words;
+		for (int w = common >>> 6; w < results.length; w++) {
+			long fromLarger = w == common >>> 6 ? -1L << common : -1L;
+			results[w] = (results[w] & ~fromLarger) | (larger[w] & fromLarger);
+		}
+
+		// mutate the child with the given rates
+		BitChromosome child = new BitChromosome(results, childLength);
+		child.mutate(mutationRate, mutationSeverity, r);
+
+		return child;
+	}
+
+	/**
+	 * gets how many longs are needed to hold the given number of bits
+	 * 
+	 * @param bits
+	 *            number of bits
+	 * @return number of longs
+	 */
+	static int wordsFor(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	/**
+	 * clears the bits past the length in the last word
+	 */
+	private static void trim(long[] words, int length) {
+		if ((length & 63) != 0)
+			words[words.length - 1] &= -1L >>> (64 - (length & 63));
+	}
+
+	private static long[] randomWords(int length, SplittableRandom random) {
+		long[] words = new long[wordsFor(length)];
+		for (int w = 0; w < words.length; w++) {
+			words[w] = random.nextLong();
+		}
+		return words;
+	}
+
+	public String toString() {
+		StringBuilder results = new StringBuilder(length + 2);
+		results.append('[');
+		for (int i = 0; i < length; i++) {
+			results.append(get(i) ? '1' : '0');
+		}
+		return results.append(']').toString();
+	}
+
+	@Override
+	public int hashCode() {
+		return Fingerprints.hash(fingerprint());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		BitChromosome other = (BitChromosome) obj;
+		// different fingerprints mean they can't be equal
+		if (fingerprint() != other.fingerprint())
+			return false;
+		if (length != other.length)
+			return false;
+		if (!Arrays.equals(words, other.words))
+			return false;
+		return true;
+	}
+}
@@ -0,0 +1,91 @@
+package ggenetic.genes.primitive;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import ggenetic.genes.Fingerprints;
+import ggenetic.genes.Gene;
+import ggenetic.random.ThreadRandom;
+
+/**
+ * a gene that is either on or off, this is what a {@link BitChromosome} gives
+ * out for each of its bits. Any mutation flips the bit.
+ */
+public class BitGene extends Gene<BitGene> {
+
+	private boolean value;
+
+	public BitGene(boolean value) {
+		this.value = value;
+	}
+
+	public boolean getValue() {
+		return value;
+	}
+
+	@Override
+	public BitGene copy() {
+		return new BitGene(value);
+	}
+
+	@Override
+	public void copyFrom(BitGene other) {
+		value = other.value;
+	}
+
+	@Override
+	public void mutate(double mutationSeverity) {
+		value = !value;
+	}
+
+	@Override
+	public void randomize() {
+		randomize(ThreadRandom.current());
+	}
+
+	@Override
+	public void randomize(SplittableRandom random) {
+		value = random.nextBoolean();
+	}
+
+	@Override
+	public int encodedSize() {
+		return 1;
+	}
+
+	@Override
+	public void encode(ByteBuffer buffer) {
+		buffer.put((byte) (value ? 1 : 0));
+	}
+
+	@Override
+	public void decode(ByteBuffer buffer) {
+		value = buffer.get() != 0;
+	}
+
+	public String toString() {
+		return value ? "1" : "0";
+	}
+
+	@Override
+	public long fingerprint() {
+		return Fingerprints.mix(value ? 1 : 0);
+	}
+
+	@Override
+	public int hashCode() {
+		return value ? 1231 : 1237;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		BitGene other = (BitGene) obj;
+		return value == other.value;
+	}
+}
@@ -0,0 +1,245 @@
+package ggenetic.genes.primitive;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import ggenetic.genes.Chromosome;
+import ggenetic.genes.Fingerprints;
+import ggenetic.genes.Mutations;
+import ggenetic.random.ThreadRandom;
+
+/**
+ * a chromosome of real values between a minimum and maximum that are stored
+ * in a single double array instead of a gene object per value. Copying is a
+ * single array copy and breeding and mutating work directly on the array.
+ */
+public class DoubleChromosome extends Chromosome<DoubleGene> {
+
+	private final double[] values;
+
+	private final double min;
+
+	private final double max;
+
+	/**
+	 * creates a chromosome that uses the given array for its values, the
+	 * array is not copied
+	 * 
+	 * @param values
+	 *            values of the chromosome
+	 * @param min
+	 *            minimum value
+	 * @param max
+	 *            maximum value
+	 */
+	public DoubleChromosome(double[] values, double min, double max) {
+		this.values = values;
+		this.min = min;
+		this.max = max;
+	}
+
+	public DoubleChromosome(int length, double min, double max) {
+		this(length, min, max, ThreadRandom.current());
+	}
+
+	/**
+	 * creates a chromosome of uniformly random values in the range
+	 * 
+	 * @param length
+	 *            how many values there are
+	 * @param min
+	 *            minimum value
+	 * @param max
+	 *            maximum value
+	 * @param random
+	 *            random number generator to use
+	 */
+	public DoubleChromosome(int length, double min, double max, SplittableRandom random) {
+		this(new double[length], min, max);
+		for (int i = 0; i < length; i++) {
+			values[i] = DoubleGene.randomValue(min, max, random);
+		}
+	}
+
+	public DoubleChromosome(DoubleChromosome chromosome) {
+		this(chromosome.values.clone(), chromosome.min, chromosome.max);
+		copyFingerprint(chromosome);
+	}
+
+	/**
+	 * gets a copy of the gene at the given position, changing the gene does
+	 * not change the chromosome
+	 */
+	@Override
+	public DoubleGene getGene(int i) {
+		return new DoubleGene(values[i], min, max);
+	}
+
+	/**
+	 * gets the value at the given position
+	 * 
+	 * @param i
+	 *            index to look at
+	 * @return value at that index
+	 */
+	public double getValue(int i) {
+		return values[i];
+	}
+
+	/**
+	 * gets a copy of all of the values
+	 * 
+	 * @return array of the values
+	 */
+	public double[] toArray() {
+		return values.clone();
+	}
+
+	@Override
+	public int size() {
+		return values.length;
+	}
+
+	@Override
+	public DoubleChromosome copy() {
+		return new DoubleChromosome(this);
+	}
+
+	/**
+	 * the new chromosome takes the genes' values and keeps the range of this
+	 * one
+	 */
+	@Override
+	public DoubleChromosome withGenes(List<DoubleGene> genes) {
+		double[] results = new double[genes.size()];
+		for (int i = 0; i < results.length; i++) {
+			results[i] = genes.get(i).getValue();
+		}
+		return new DoubleChromosome(results, min, max);
+	}
+
+	@Override
+	public void mutate(double rate, double severity, SplittableRandom r) {
+		// check if nothing can be mutated
+		if (!(rate > 0))
+			return;
+
+		// for low rates jump straight to each value that will be mutated
+		if (Mutations.isSparse(rate)) {
+			double logMiss = Math.log1p(-rate);
+			int i = Mutations.nextLocus(-1, values.length, logMiss, r);
+			while (i < values.length) {
+				mutateValue(i, Mutations.severity(r.nextDouble(), severity), r);
+				i = Mutations.nextLocus(i, values.length, logMiss, r);
+			}
+			return;
+		}
+
+		// draw the mutations for 64 values at a time and then apply them all
+		// at once, the random numbers are drawn in the same order as for a
+		// single value
+		double range = max - min;
+		double[] steps = new double[64];
+		boolean changed = false;
+		for (int start = 0; start < values.length; start += 64) {
+			int count = Math.min(64, values.length - start);
+			long mask = 0;
+			for (int j = 0; j < count; j++) {
+				if (r.nextDouble() < rate) {
+					double s = Mutations.severity(r.nextDouble(), severity);
+					steps[j] = (r.nextDouble() * 2 - 1) * s * range;
+					mask |= 1L << j;
+				}
+			}
+
+			if (mask != 0) {
+				Kernels.addClamped(values, start, steps, mask, min, max, count);
+				changed = true;
+			}
+		}
+
+		// too many values changed to keep the fingerprint up to date
+		if (changed)
+			invalidateFingerprint();
+	}
+
+	/**
+	 * mutates a single value keeping the fingerprint up to date
+	 */
+	private void mutateValue(int i, double severity, SplittableRandom r) {
+		double old = values[i];
+		values[i] = DoubleGene.mutateValue(old, severity, min, max, r);
+		if (isFingerprinted())
+			geneChanged(i, valueFingerprint(old), valueFingerprint(values[i]));
+	}
+
+	@Override
+	protected long computeFingerprint() {
+		long results = Fingerprints.empty(values.length);
+		for (int i = 0; i < values.length; i++) {
+			results ^= Fingerprints.locus(valueFingerprint(values[i]), i);
+		}
+		return results;
+	}
+
+	private static long valueFingerprint(double value) {
+		return Fingerprints.mix(Double.doubleToLongBits(value));
+	}
+
+	@Override
+	public DoubleChromosome breed(Chromosome<DoubleGene> other, double mutationRate, double mutationSeverity,
+			SplittableRandom r) {
+		if (!(other instanceof DoubleChromosome))
+			throw new IllegalArgumentException("A DoubleChromosome can only breed with another DoubleChromosome!");
+		DoubleChromosome mate = (DoubleChromosome) other;
+
+		// work out how long the child is and how much both parents share
+		int length = breedLength(values.length, mate.values.length, r);
+		int common = Math.min(values.length, mate.values.length);
+		double[] results = new double[length];
+
+		// take each shared value from either parent with 50% probability
+		Kernels.blend(values, mate.values, Kernels.crossoverMasks(common, r), results, common);
+
+		// the rest comes from the longer parent
+		double[] larger = values.length > mate.values.length ? values : mate.values;
+		System.arraycopy(larger, common, results, common, length - common);
+
+		// mutate the child with the given rates
+		DoubleChromosome child = new DoubleChromosome(results, min, max);
+		child.mutate(mutationRate, mutationSeverity, r);
+
+		return child;
+	}
+
+	public String toString() {
+		return Arrays.toString(values);
+	}
+
+	@Override
+	public int hashCode() {
+		return Fingerprints.hash(fingerprint());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DoubleChromosome other = (DoubleChromosome) obj;
+		// different fingerprints mean they can't be equal
+		if (fingerprint() != other.fingerprint())
+			return false;
+		if (Double.doubleToLongBits(max) != Double.doubleToLongBits(other.max))
+			return false;
+		if (Double.doubleToLongBits(min) != Double.doubleToLongBits(other.min))
+			return false;
+		if (!Arrays.equals(values, other.values))
+			return false;
+		return true;
+	}
+}
@@ -0,0 +1,157 @@
+package ggenetic.genes.primitive;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import ggenetic.genes.Fingerprints;
+import ggenetic.genes.Gene;
+import ggenetic.random.ThreadRandom;
+
+/**
+ * a gene that holds a real value between a minimum and maximum, this is what
+ * a {@link DoubleChromosome} gives out for each of its values.
+ */
+public class DoubleGene extends Gene<DoubleGene> {
+
+	private double value;
+
+	private double min;
+
+	private double max;
+
+	public DoubleGene(double value, double min, double max) {
+		this.value = value;
+		this.min = min;
+		this.max = max;
+	}
+
+	public double getValue() {
+		return value;
+	}
+
+	@Override
+	public DoubleGene copy() {
+		return new DoubleGene(value, min, max);
+	}
+
+	@Override
+	public void copyFrom(DoubleGene other) {
+		value = other.value;
+		min = other.min;
+		max = other.max;
+	}
+
+	@Override
+	public void mutate(double mutationSeverity) {
+		mutate(mutationSeverity, ThreadRandom.current());
+	}
+
+	@Override
+	public void mutate(double mutationSeverity, SplittableRandom random) {
+		value = mutateValue(value, mutationSeverity, min, max, random);
+	}
+
+	@Override
+	public void randomize() {
+		randomize(ThreadRandom.current());
+	}
+
+	@Override
+	public void randomize(SplittableRandom random) {
+		value = randomValue(min, max, random);
+	}
+
+	/**
+	 * mutates a value by moving it up or down by up to the severity times the
+	 * size of the range, the results are kept inside of the range
+	 * 
+	 * @param value
+	 *            value to mutate
+	 * @param severity
+	 *            how severe the mutation is from 0 to 1
+	 * @param min
+	 *            minimum value
+	 * @param max
+	 *            maximum value
+	 * @param random
+	 *            random number generator to use
+	 * @return the mutated value
+	 */
+	static double mutateValue(double value, double severity, double min, double max, SplittableRandom random) {
+		double results = value + (random.nextDouble() * 2 - 1) * severity * (max - min);
+		return Math.max(min, Math.min(max, results));
+	}
+
+	/**
+	 * picks a uniformly random value in the range
+	 * 
+	 * @param min
+	 *            minimum value
+	 * @param max
+	 *            maximum value
+	 * @param random
+	 *            random number generator to use
+	 * @return a random value
+	 */
+	static double randomValue(double min, double max, SplittableRandom random) {
+		return min + random.nextDouble() * (max - min);
+	}
+
+	@Override
+	public int encodedSize() {
+		return Double.BYTES;
+	}
+
+	@Override
+	public void encode(ByteBuffer buffer) {
+		buffer.putDouble(value);
+	}
+
+	@Override
+	public void decode(ByteBuffer buffer) {
+		value = buffer.getDouble();
+	}
+
+	public String toString() {
+		return Double.toString(value);
+	}
+
+	@Override
+	public long fingerprint() {
+		long results = Fingerprints.mix(Double.doubleToLongBits(value));
+		results = Fingerprints.combine(results, Double.doubleToLongBits(min));
+		return Fingerprints.combine(results, Double.doubleToLongBits(max));
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		long temp;
+		temp = Double.doubleToLongBits(max);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(min);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		temp = Double.doubleToLongBits(value);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DoubleGene other = (DoubleGene) obj;
+		if (Double.doubleToLongBits(max) != Double.doubleToLongBits(other.max))
+			return false;
+		if (Double.doubleToLongBits(min) != Double.doubleToLongBits(other.min))
+			return false;
+		if (Double.doubleToLongBits(value) != Double.doubleToLongBits(other.value))
+			return false;
+		return true;
+	}
+}
@@ -0,0 +1,224 @@
+package ggenetic.genes.primitive;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import ggenetic.genes.Chromosome;
+import ggenetic.genes.Fingerprints;
+import ggenetic.genes.Mutations;
+import ggenetic.random.ThreadRandom;
+
+/**
+ * a chromosome of integer values between a minimum and maximum inclusive that
+ * are stored in a single int array instead of a gene object per value.
+ * Copying is a single array copy and breeding and mutating work directly on
+ * the array.
+ */
+public class IntChromosome extends Chromosome<IntGene> {
+
+	private final int[] values;
+
+	private final int min;
+
+	private final int max;
+
+	/**
+	 * creates a chromosome that uses the given array for its values, the
+	 * array is not copied
+	 * 
+	 * @param values
+	 *            values of the chromosome
+	 * @param min
+	 *            minimum value
+	 * @param max
+	 *            maximum value, inclusive
+	 */
+	public IntChromosome(int[] values, int min, int max) {
+		this.values = values;
+		this.min = min;
+		this.max = max;
+	}
+
+	public IntChromosome(int length, int min, int max) {
+		this(length, min, max, ThreadRandom.current());
+	}
+
+	/**
+	 * creates a chromosome of uniformly random values in the range
+	 * 
+	 * @param length
+	 *            how many values there are
+	 * @param min
+	 *            minimum value
+	 * @param max
+	 *            maximum value, inclusive
+	 * @param random
+	 *            random number generator to use
+	 */
+	public IntChromosome(int length, int min, int max, SplittableRandom random) {
+		this(new int[length], min, max);
+		for (int i = 0; i < length; i++) {
+			values[i] = IntGene.randomValue(min, max, random);
+		}
+	}
+
+	public IntChromosome(IntChromosome chromosome) {
+		this(chromosome.values.clone(), chromosome.min, chromosome.max);
+		copyFingerprint(chromosome);
+	}
+
+	/**
+	 * gets a copy of the gene at the given position, changing the gene does
+	 * not change the chromosome
+	 */
+	@Override
+	public IntGene getGene(int i) {
+		return new IntGene(values[i], min, max);
+	}
+
+	/**
+	 * gets the value at the given position
+	 * 
+	 * @param i
+	 *            index to look at
+	 * @return value at that index
+	 */
+	public int getValue(int i) {
+		return values[i];
+	}
+
+	/**
+	 * gets a copy of all of the values
+	 * 
+	 * @return array of the values
+	 */
+	public int[] toArray() {
+		return values.clone();
+	}
+
+	@Override
+	public int size() {
+		return values.length;
+	}
+
+	@Override
+	public IntChromosome copy() {
+		return new IntChromosome(this);
+	}
+
+	/**
+	 * the new chromosome takes the genes' values and keeps the range of this
+	 * one
+	 */
+	@Override
+	public IntChromosome withGenes(List<IntGene> genes) {
+		int[] results = new int[genes.size()];
+		for (int i = 0; i < results.length; i++) {
+			results[i] = genes.get(i).getValue();
+		}
+		return new IntChromosome(results, min, max);
+	}
+
+	@Override
+	public void mutate(double rate, double severity, SplittableRandom r) {
+		// check if nothing can be mutated
+		if (!(rate > 0))
+			return;
+
+		// for low rates jump straight to each value that will be mutated
+		if (Mutations.isSparse(rate)) {
+			double logMiss = Math.log1p(-rate);
+			int i = Mutations.nextLocus(-1, values.length, logMiss, r);
+			while (i < values.length) {
+				mutateValue(i, Mutations.severity(r.nextDouble(), severity), r);
+				i = Mutations.nextLocus(i, values.length, logMiss, r);
+			}
+			return;
+		}
+
+		for (int i = 0; i < values.length; i++) {
+			if (r.nextDouble() < rate)
+				mutateValue(i, Mutations.severity(r.nextDouble(), severity), r);
+		}
+	}
+
+	/**
+	 * mutates a single value keeping the fingerprint up to date
+	 */
+	private void mutateValue(int i, double severity, SplittableRandom r) {
+		int old = values[i];
+		values[i] = IntGene.mutateValue(old, severity, min, max, r);
+		if (isFingerprinted())
+			geneChanged(i, valueFingerprint(old), valueFingerprint(values[i]));
+	}
+
+	@Override
+	protected long computeFingerprint() {
+		long results = Fingerprints.empty(values.length);
+		for (int i = 0; i < values.length; i++) {
+			results ^= Fingerprints.locus(valueFingerprint(values[i]), i);
+		}
+		return results;
+	}
+
+	private static long valueFingerprint(int value) {
+		return Fingerprints.mix(value);
+	}
+
+	@Override
+	public IntChromosome breed(Chromosome<IntGene> other, double mutationRate, double mutationSeverity,
+			SplittableRandom r) {
+		if (!(other instanceof IntChromosome))
+			throw new IllegalArgumentException("A IntChromosome can only breed with another IntChromosome!");
+		IntChromosome mate = (IntChromosome) other;
+
+		// work out how long the child is and how much both parents share
+		int length = breedLength(values.length, mate.values.length, r);
+		int common = Math.min(values.length, mate.values.length);
+		int[] results = new int[length];
+
+		// take each shared value from either parent with 50% probability
+		Kernels.blend(values, mate.values, Kernels.crossoverMasks(common, r), results, common);
+
+		// the rest comes from the longer parent
+		int[] larger = values.length > mate.values.length ? values : mate.values;
+		System.arraycopy(larger, common, results, common, length - common);
+
+		// mutate the child with the given rates
+		IntChromosome child = new IntChromosome(results, min, max);
+		child.mutate(mutationRate, mutationSeverity, r);
+
+		return child;
+	}
+
+	public String toString() {
+		return Arrays.toString(values);
+	}
+
+	@Override
+	public int hashCode() {
+		return Fingerprints.hash(fingerprint());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		IntChromosome other = (IntChromosome) obj;
+		// different fingerprints mean they can't be equal
+		if (fingerprint() != other.fingerprint())
+			return false;
+		if (max != other.max)
+			return false;
+		if (min != other.min)
+			return false;
+		if (!Arrays.equals(values, other.values))
+			return false;
+		return true;
+	}
+}
@@ -0,0 +1,154 @@
+package ggenetic.genes.primitive;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import ggenetic.genes.Fingerprints;
+import ggenetic.genes.Gene;
+import ggenetic.random.ThreadRandom;
+
+/**
+ * a gene that holds an integer value between a minimum and maximum inclusive,
+ * this is what an {@link IntChromosome} gives out for each of its values.
+ */
+public class IntGene extends Gene<IntGene> {
+
+	private int value;
+
+	private int min;
+
+	private int max;
+
+	public IntGene(int value, int min, int max) {
+		this.value = value;
+		this.min = min;
+		this.max = max;
+	}
+
+	public int getValue() {
+		return value;
+	}
+
+	@Override
+	public IntGene copy() {
+		return new IntGene(value, min, max);
+	}
+
+	@Override
+	public void copyFrom(IntGene other) {
+		value = other.value;
+		min = other.min;
+		max = other.max;
+	}
+
+	@Override
+	public void mutate(double mutationSeverity) {
+		mutate(mutationSeverity, ThreadRandom.current());
+	}
+
+	@Override
+	public void mutate(double mutationSeverity, SplittableRandom random) {
+		value = mutateValue(value, mutationSeverity, min, max, random);
+	}
+
+	@Override
+	public void randomize() {
+		randomize(ThreadRandom.current());
+	}
+
+	@Override
+	public void randomize(SplittableRandom random) {
+		value = randomValue(min, max, random);
+	}
+
+	/**
+	 * mutates a value by moving it up or down by up to the severity times the
+	 * size of the range, it always moves by at least one and the results are
+	 * kept inside of the range
+	 * 
+	 * @param value
+	 *            value to mutate
+	 * @param severity
+	 *            how severe the mutation is from 0 to 1
+	 * @param min
+	 *            minimum value
+	 * @param max
+	 *            maximum value
+	 * @param random
+	 *            random number generator to use
+	 * @return the mutated value
+	 */
+	static int mutateValue(int value, double severity, int min, int max, SplittableRandom random) {
+		long step = Math.round((random.nextDouble() * 2 - 1) * severity * ((long) max - min));
+		if (step == 0)
+			step = random.nextBoolean() ? 1 : -1;
+		return (int) Math.max(min, Math.min(max, value + step));
+	}
+
+	/**
+	 * picks a uniformly random value in the range
+	 * 
+	 * @param min
+	 *            minimum value
+	 * @param max
+	 *            maximum value, inclusive
+	 * @param random
+	 *            random number generator to use
+	 * @return a random value
+	 */
+	static int randomValue(int min, int max, SplittableRandom random) {
+		return (int) random.nextLong(min, (long) max + 1);
+	}
+
+	@Override
+	public int encodedSize() {
+		return Integer.BYTES;
+	}
+
+	@Override
+	public void encode(ByteBuffer buffer) {
+		buffer.putInt(value);
+	}
+
+	@Override
+	public void decode(ByteBuffer buffer) {
+		value = buffer.getInt();
+	}
+
+	public String toString() {
+		return Integer.toString(value);
+	}
+
+	@Override
+	public long fingerprint() {
+		return Fingerprints.combine(Fingerprints.mix(value), (long) min << 32 | (max & 0xffffffffL));
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + max;
+		result = prime * result + min;
+		result = prime * result + value;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		IntGene other = (IntGene) obj;
+		if (max != other.max)
+			return false;
+		if (min != other.min)
+			return false;
+		if (value != other.value)
+			return false;
+		return true;
+	}
+}
@@ -0,0 +1,234 @@
+package ggenetic.genes.primitive;
+
+import java.util.SplittableRandom;
+
+/**
+ * bulk operations over whole primitive chromosomes. The loops are kept free of
+ * branches and of dependencies between elements, a mask bit of 1 always means
+ * the value comes from the first array.
+ *
+ * When the JVM has the incubating vector API (jdk.incubator.vector, added
+ * with --add-modules) and the vector kernels in the vector source folder are
+ * on the class path, the kernels run on explicit vectors. Otherwise, or if
+ * the ggenetic.vector system property is false, the scalar loops here are
+ * used. Both give exactly the same results.
+ */
+final class Kernels {
+
+	// vector versions of the kernels or null if they can't be used
+	private static final Vectorized VECTOR = loadVectorized();
+
+	private Kernels() {}
+
+	/**
+	 * the kernels that have vector versions, the vector versions are in
+	 * VectorKernels
+	 */
+	interface Vectorized {
+
+		void blend(double[] a, double[] b, long[] masks, double[] out, int length);
+
+		void blend(int[] a, int[] b, long[] masks, int[] out, int length);
+
+		void blend(long[] a, long[] b, long[] masks, long[] out, int words);
+
+		void addClamped(double[] values, int offset, double[] steps, long mask, double min, double max, int count);
+
+		void flip(long[] words, long[] flips, int count);
+	}
+
+	private static Vectorized loadVectorized() {
+		if (!Boolean.parseBoolean(System.getProperty("ggenetic.vector", "true")))
+			return null;
+
+		// anything going wrong means the vector API or the kernels aren't
+		// there, or there is no vector hardware
+		try {
+			return (Vectorized) Class.forName("ggenetic.genes.primitive.VectorKernels").getDeclaredConstructor()
+					.newInstance();
+		} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * checks if the kernels are running on the vector API
+	 *
+	 * @return if the vector kernels are used
+	 */
+	static boolean isVectorized() {
+		return VECTOR != null;
+	}
+
+	/**
+	 * makes the masks for a uniform crossover, one random long gives the
+	 * choices for 64 genes
+	 *
+	 * @param length
+	 *            how many genes need a choice
+	 * @param random
+	 *            random number generator to use
+	 * @return the masks where bit i % 64 of mask i / 64 is the choice for gene i
+	 */
+	static long[] crossoverMasks(int length, SplittableRandom random) {
+		long[] masks = new long[(length + 63) >>> 6];
+		for (int w = 0; w < masks.length; w++) {
+			masks[w] = random.nextLong();
+		}
+		return masks;
+	}
+
+	/**
+	 * picks each of the first length values from either a or b depending on
+	 * the mask
+	 *
+	 * @param a
+	 *            values picked when the mask bit is 1
+	 * @param b
+	 *            values picked when the mask bit is 0
+	 * @param masks
+	 *            one bit per value
+	 * @param out
+	 *            where the results are put
+	 * @param length
+	 *            how many values to blend
+	 */
+	static void blend(double[] a, double[] b, long[] masks, double[] out, int length) {
+		if (VECTOR != null)
+			VECTOR.blend(a, b, masks, out, length);
+		else
+			blend(a, b, masks, out, 0, length);
+	}
+
+	/**
+	 * the scalar blend of the values from the given index on, the vector
+	 * kernels use this for what is left after the last full vector
+	 */
+	static void blend(double[] a, double[] b, long[] masks, double[] out, int from, int length) {
+		for (int i = from; i < length; i++) {
+			long select = -((masks[i >>> 6] >>> i) & 1);
+			long bits = (Double.doubleToRawLongBits(a[i]) & select) | (Double.doubleToRawLongBits(b[i]) & ~select);
+			out[i] = Double.longBitsToDouble(bits);
+		}
+	}
+
+	/**
+	 * picks each of the first length values from either a or b depending on
+	 * the mask
+	 *
+	 * @param a
+	 *            values picked when the mask bit is 1
+	 * @param b
+	 *            values picked when the mask bit is 0
+	 * @param masks
+	 *            one bit per value
+	 * @param out
+	 *            where the results are put
+	 * @param length
+	 *            how many values to blend
+	 */
+	static void blend(int[] a, int[] b, long[] masks, int[] out, int length) {
+		if (VECTOR != null)
+			VECTOR.blend(a, b, masks, out, length);
+		else
+			blend(a, b, masks, out, 0, length);
+	}
+
+	static void blend(int[] a, int[] b, long[] masks, int[] out, int from, int length) {
+		for (int i = from; i < length; i++) {
+			int select = (int) -((masks[i >>> 6] >>> i) & 1);
+			out[i] = (a[i] & select) | (b[i] & ~select);
+		}
+	}
+
+	/**
+	 * picks each bit from either a or b depending on the mask, this works on
+	 * 64 bits at a time
+	 *
+	 * @param a
+	 *            bits picked when the mask bit is 1
+	 * @param b
+	 *            bits picked when the mask bit is 0
+	 * @param masks
+	 *            one bit per bit
+	 * @param out
+	 *            where the results are put
+	 * @param words
+	 *            how many words to blend
+	 */
+	static void blend(long[] a, long[] b, long[] masks, long[] out, int words) {
+		if (VECTOR != null)
+			VECTOR.blend(a, b, masks, out, words);
+		else
+			blend(a, b, masks, out, 0, words);
+	}
+
+	static void blend(long[] a, long[] b, long[] masks, long[] out, int from, int words) {
+		for (int w = from; w < words; w++) {
+			out[w] = (a[w] & masks[w]) | (b[w] & ~masks[w]);
+		}
+	}
+
+	/**
+	 * adds steps to up to 64 values that are picked by a mask and keeps them
+	 * inside of the range, this is how a dense mutation is applied once its
+	 * random numbers have been drawn
+	 *
+	 * @param values
+	 *            values to mutate in place
+	 * @param offset
+	 *            index of the first value
+	 * @param steps
+	 *            step for each value, step j is added to value offset + j,
+	 *            steps that aren't picked can be anything
+	 * @param mask
+	 *            bit j is set if value offset + j is mutated
+	 * @param min
+	 *            minimum value
+	 * @param max
+	 *            maximum value
+	 * @param count
+	 *            how many values there are, at most 64
+	 */
+	static void addClamped(double[] values, int offset, double[] steps, long mask, double min, double max,
+			int count) {
+		if (VECTOR != null)
+			VECTOR.addClamped(values, offset, steps, mask, min, max, count);
+		else
+			addClamped(values, offset, steps, mask, min, max, 0, count);
+	}
+
+	static void addClamped(double[] values, int offset, double[] steps, long mask, double min, double max, int from,
+			int count) {
+		for (int j = from; j < count; j++) {
+			double value = values[offset + j];
+			double mutated = Math.max(min, Math.min(max, value + steps[j]));
+			long select = -((mask >>> j) & 1);
+			long bits = (Double.doubleToRawLongBits(mutated) & select) | (Double.doubleToRawLongBits(value) & ~select);
+			values[offset + j] = Double.longBitsToDouble(bits);
+		}
+	}
+
+	/**
+	 * flips every bit that is set in the flips
+	 *
+	 * @param words
+	 *            bits to flip in place
+	 * @param flips
+	 *            one bit for each bit that is flipped
+	 * @param count
+	 *            how many words there are
+	 */
+	static void flip(long[] words, long[] flips, int count) {
+		if (VECTOR != null)
+			VECTOR.flip(words, flips, count);
+		else
+			flip(words, flips, 0, count);
+	}
+
+	static void flip(long[] words, long[] flips, int from, int count) {
+		for (int w = from; w < count; w++) {
+			words[w] ^= flips[w];
+		}
+	}
+}
@@ -0,0 +1,295 @@
+package ggenetic.island;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
+
+import ggenetic.creature.Creature;
+import ggenetic.creature.Population;
+import ggenetic.genes.Gene;
+
+/**
+ * evolves several populations, called islands, at the same time with each
+ * island on its own thread. Every few generations each island sends copies of
+ * its best creatures to other islands, where they replace the worst creatures.
+ * The islands don't wait for each other, migrants are passed through a
+ * {@link MigrationTransport} and are taken in by an island the next time it
+ * has computed its fitness values. By default the migrants stay in this
+ * process, a {@link SocketTransport} spreads the islands over several
+ * processes.
+ * 
+ * The populations should do their own work on the calling thread, don't give
+ * them the same executor the islands are run on.
+ *
+ * @param <C>
+ *            type of creature
+ * @param <G>
+ *            type of gene
+ */
+public class IslandModel<C extends Creature<C, G>, G extends Gene<G>> {
+
+	private final ArrayList<Population<C, G>> islands;
+
+	private MigrationTransport<C> transport;
+
+	private MigrationTopology topology = MigrationTopology.RING;
+
+	private int migrationInterval = 10;
+
+	private int migrants = 1;
+
+	private SplittableRandom random = new SplittableRandom();
+
+	/**
+	 * creates an island model out of the given populations, they should
+	 * already be populated
+	 * 
+	 * @param islands
+	 *            populations to evolve, there must be at least two
+	 */
+	public IslandModel(List<Population<C, G>> islands) {
+		if (islands.size() < 2)
+			throw new IllegalArgumentException("An island model needs at least two islands (" + islands.size() + ")");
+
+		this.islands = new ArrayList<>(islands);
+		transport = new LocalTransport<>(islands.size());
+	}
+
+	/**
+	 * sets how migrants are carried between islands, the transport must have
+	 * room for all of this model's islands starting at its first island
+	 * 
+	 * @param transport
+	 *            transport to use
+	 */
+	public void setTransport(MigrationTransport<C> transport) {
+		if (transport.getFirstIsland() < 0
+				|| transport.getFirstIsland() + islands.size() > transport.getIslandCount())
+			throw new IllegalArgumentException("Transport doesn't have room for islands " + transport.getFirstIsland()
+					+ " to " + (transport.getFirstIsland() + islands.size() - 1));
+
+		this.transport = transport;
+	}
+
+	/**
+	 * sets which islands each island sends its migrants to
+	 * 
+	 * @param topology
+	 *            migration topology to use
+	 */
+	public void setTopology(MigrationTopology topology) {
+		this.topology = topology;
+	}
+
+	/**
+	 * sets how many generations there are between each time an island sends
+	 * out migrants
+	 * 
+	 * @param migrationInterval
+	 *            generations between migrations
+	 */
+	public void setMigrationInterval(int migrationInterval) {
+		if (migrationInterval <= 0)
+			throw new IllegalArgumentException("Migration interval must be positive (" + migrationInterval + ")");
+
+		this.migrationInterval = migrationInterval;
+	}
+
+	/**
+	 * sets how many of its best creatures an island sends to each of its
+	 * targets when it migrates
+	 * 
+	 * @param migrants
+	 *            number of creatures to send
+	 */
+	public void setMigrants(int migrants) {
+		if (migrants < 0)
+			throw new IllegalArgumentException("Number of migrants must not be negative (" + migrants + ")");
+
+		this.migrants = migrants;
+	}
+
+	/**
+	 * seeds the random number generator used for picking random migration
+	 * targets and copying migrants
+	 * 
+	 * @param seed
+	 *            seed for the random number generator
+	 */
+	public void setSeed(long seed) {
+		random = new SplittableRandom(seed);
+	}
+
+	public Population<C, G> getIsland(int i) {
+		return islands.get(i);
+	}
+
+	public int getIslandCount() {
+		return islands.size();
+	}
+
+	/**
+	 * evolves every island for the given number of generations on a thread per
+	 * island, this blocks until all of the islands are done
+	 * 
+	 * @param generations
+	 *            how many generations to evolve each island
+	 * @param fitnessFunction
+	 *            function to compute the fitness of a creature
+	 * @param numberToRemove
+	 *            how many creatures are removed and replaced each generation
+	 */
+	public void evolve(int generations, ToDoubleFunction<C> fitnessFunction, int numberToRemove) {
+		ExecutorService executor = Executors.newFixedThreadPool(islands.size());
+		try {
+			evolve(generations, fitnessFunction, numberToRemove, executor);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * evolves every island for the given number of generations with each
+	 * island run as a task on the executor, the executor needs a thread for
+	 * every island for the islands to evolve at the same time. This blocks
+	 * until all of the islands are done, after which every island has fitness
+	 * values computed for its current creatures.
+	 * 
+	 * @param generations
+	 *            how many generations to evolve each island
+	 * @param fitnessFunction
+	 *            function to compute the fitness of a creature
+	 * @param numberToRemove
+	 *            how many creatures are removed and replaced each generation
+	 * @param executor
+	 *            executor to run the islands on
+	 */
+	public void evolve(int generations, ToDoubleFunction<C> fitnessFunction, int numberToRemove,
+			ExecutorService executor) {
+		// start each of the islands with its own random number generator
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < islands.size(); i++) {
+			int island = i;
+			SplittableRandom r = random.split();
+			futures.add(executor.submit(() -> evolveIsland(island, generations, fitnessFunction, numberToRemove, r)));
+		}
+
+		// wait for all of the islands to finish
+		try {
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for islands to finish", e);
+		} catch (ExecutionException e) {
+			for (Future<?> future : futures) {
+				future.cancel(true);
+			}
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * the work done on each island's thread
+	 */
+	private void evolveIsland(int island, int generations, ToDoubleFunction<C> fitnessFunction, int numberToRemove,
+			SplittableRandom r) {
+		Population<C, G> population = islands.get(island);
+
+		for (int generation = 1; generation <= generations; generation++) {
+			population.computeFitnessScores(fitnessFunction);
+
+			// send out the best creatures before taking any in so they don't
+			// bounce straight back
+			if (generation % migrationInterval == 0)
+				emigrate(island, r);
+			immigrate(island);
+
+			population.killAndRepopulate(numberToRemove);
+		}
+
+		// leave the island with fitness values for its creatures
+		population.computeFitnessScores(fitnessFunction);
+	}
+
+	/**
+	 * sends copies of the best creatures of the island to its targets, any
+	 * the transport can't take right away are dropped
+	 */
+	private void emigrate(int island, SplittableRandom r) {
+		Population<C, G> population = islands.get(island);
+		int first = transport.getFirstIsland();
+
+		for (int target : topology.targets(first + island, transport.getIslandCount(), r)) {
+			for (int rank = 0; rank < migrants; rank++) {
+				// copy the creature so the islands never share one
+				C copy = population.getCreatureByRank(rank).asexuallyReproduce(0, 0, r);
+				transport.send(target, new Migrant<>(copy, population.getFitnessByRank(rank)));
+			}
+		}
+	}
+
+	/**
+	 * replaces the worst creatures of the island with the migrants that have
+	 * been sent to it, there are always at least two of the island's own
+	 * creatures kept so any migrants past that wait for the next time
+	 */
+	private void immigrate(int island) {
+		Population<C, G> population = islands.get(island);
+		int number = transport.getFirstIsland() + island;
+
+		List<C> arrivals = new ArrayList<>();
+		List<Double> arrivalFitness = new ArrayList<>();
+		Migrant<C> migrant;
+		while (arrivals.size() < population.getSize() - 2 && (migrant = transport.poll(number)) != null) {
+			arrivals.add(migrant.getCreature());
+			arrivalFitness.add(migrant.getFitness());
+		}
+
+		if (arrivals.isEmpty())
+			return;
+
+		double[] fitness = new double[arrivalFitness.size()];
+		for (int i = 0; i < fitness.length; i++) {
+			fitness[i] = arrivalFitness.get(i);
+		}
+		population.replaceWorstCreatures(arrivals, fitness);
+	}
+
+	/**
+	 * gets the best creature out of all of the islands from the last time
+	 * their fitness values were computed
+	 * 
+	 * @return the best creature
+	 */
+	public C getBestCreature() {
+		return islands.get(bestIsland()).getBestCreature();
+	}
+
+	/**
+	 * gets the best fitness out of all of the islands from the last time their
+	 * fitness values were computed
+	 * 
+	 * @return the best fitness
+	 */
+	public double getBestFitness() {
+		return islands.get(bestIsland()).getBestFitness();
+	}
+
+	private int bestIsland() {
+		int best = 0;
+		for (int i = 1; i < islands.size(); i++) {
+			if (Double.compare(islands.get(i).getBestFitness(), islands.get(best).getBestFitness()) < 0)
+				best = i;
+		}
+		return best;
+	}
+}
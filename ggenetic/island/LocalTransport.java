@@ -0,0 +1,51 @@
+package ggenetic.island;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import ggenetic.creature.Creature;
+
+/**
+ * carries migrants between islands in the same process through a lock free
+ * queue for each island, this is what an {@link IslandModel} uses unless it is
+ * given another transport.
+ *
+ * @param <C>
+ *            type of creature
+ */
+public class LocalTransport<C extends Creature<C, ?>> implements MigrationTransport<C> {
+
+	private final ArrayList<ConcurrentLinkedQueue<Migrant<C>>> inboxes = new ArrayList<>();
+
+	/**
+	 * creates a transport for the given number of islands
+	 * 
+	 * @param islands
+	 *            number of islands
+	 */
+	public LocalTransport(int islands) {
+		for (int i = 0; i < islands; i++) {
+			inboxes.add(new ConcurrentLinkedQueue<>());
+		}
+	}
+
+	@Override
+	public int getFirstIsland() {
+		return 0;
+	}
+
+	@Override
+	public int getIslandCount() {
+		return inboxes.size();
+	}
+
+	@Override
+	public boolean send(int island, Migrant<C> migrant) {
+		return inboxes.get(island).offer(migrant);
+	}
+
+	@Override
+	public Migrant<C> poll(int island) {
+		return inboxes.get(island).poll();
+	}
+}
@@ -0,0 +1,34 @@
+package ggenetic.island;
+
+import ggenetic.creature.Creature;
+
+/**
+ * a creature moving from one island to another along with the fitness value
+ * it had on the island it came from
+ *
+ * @param <C>
+ *            type of creature
+ */
+public class Migrant<C extends Creature<C, ?>> {
+
+	private final C creature;
+
+	private final double fitness;
+
+	public Migrant(C creature, double fitness) {
+		this.creature = creature;
+		this.fitness = fitness;
+	}
+
+	public C getCreature() {
+		return creature;
+	}
+
+	public double getFitness() {
+		return fitness;
+	}
+
+	public String toString() {
+		return creature + " (" + fitness + ")";
+	}
+}
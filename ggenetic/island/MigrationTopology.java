@@ -0,0 +1,64 @@
+package ggenetic.island;
+
+import java.util.SplittableRandom;
+
+/**
+ * decides which islands the migrants of an island are sent to
+ */
+public enum MigrationTopology {
+
+	/**
+	 * each island sends its migrants to the next island, the last island
+	 * sends to the first
+	 */
+	RING {
+		@Override
+		public int[] targets(int island, int islands, SplittableRandom random) {
+			return new int[] { (island + 1) % islands };
+		}
+	},
+
+	/**
+	 * each island sends its migrants to every other island
+	 */
+	FULLY_CONNECTED {
+		@Override
+		public int[] targets(int island, int islands, SplittableRandom random) {
+			int[] results = new int[islands - 1];
+			for (int i = 0, target = 0; target < islands; target++) {
+				if (target != island)
+					results[i++] = target;
+			}
+			return results;
+		}
+	},
+
+	/**
+	 * each island sends its migrants to a different randomly picked island
+	 * each time
+	 */
+	RANDOM {
+		@Override
+		public int[] targets(int island, int islands, SplittableRandom random) {
+			// pick from the other islands by skipping over this one
+			int target = random.nextInt(islands - 1);
+			if (target >= island)
+				target++;
+			return new int[] { target };
+		}
+	};
+
+	/**
+	 * gets the islands that an island sends its migrants to, there must be at
+	 * least two islands
+	 * 
+	 * @param island
+	 *            index of the island sending migrants
+	 * @param islands
+	 *            how many islands there are
+	 * @param random
+	 *            random number generator to use
+	 * @return indices of the islands to send to
+	 */
+	public abstract int[] targets(int island, int islands, SplittableRandom random);
+}
@@ -0,0 +1,59 @@
+package ggenetic.island;
+
+import java.io.Closeable;
+
+import ggenetic.creature.Creature;
+
+/**
+ * carries migrants between islands. Islands are numbered across every
+ * process taking part, each process runs the islands from
+ * {@link #getFirstIsland()} up to however many populations its
+ * {@link IslandModel} has.
+ *
+ * @param <C>
+ *            type of creature
+ */
+public interface MigrationTransport<C extends Creature<C, ?>> extends Closeable {
+
+	/**
+	 * gets the number of the first island run by this process
+	 * 
+	 * @return number of the first local island
+	 */
+	int getFirstIsland();
+
+	/**
+	 * gets the number of islands across every process
+	 * 
+	 * @return total number of islands
+	 */
+	int getIslandCount();
+
+	/**
+	 * sends a migrant to the given island, this must not block. If the
+	 * migrant can't be sent right away, for example because the connection to
+	 * the island is backed up, it is dropped.
+	 * 
+	 * @param island
+	 *            number of the island to send to
+	 * @param migrant
+	 *            migrant to send, the transport may keep the creature
+	 * @return if the migrant was sent
+	 */
+	boolean send(int island, Migrant<C> migrant);
+
+	/**
+	 * takes the next migrant that has arrived for a local island
+	 * 
+	 * @param island
+	 *            number of the local island
+	 * @return the next migrant or null if there aren't any
+	 */
+	Migrant<C> poll(int island);
+
+	/**
+	 * stops the transport, by default there is nothing to stop
+	 */
+	@Override
+	default void close() {}
+}
@@ -0,0 +1,479 @@
+package ggenetic.island;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import ggenetic.creature.Creature;
+import ggenetic.genes.Gene;
+import ggenetic.genes.Genome;
+import ggenetic.genes.GenomeCodec;
+
+/**
+ * carries migrants between processes over TCP. Each process runs a range of
+ * the islands, listens for migrants sent to its islands and connects to the
+ * other processes to send migrants to theirs. All of the networking is done
+ * by one thread with non blocking channels, sending a migrant only encodes it
+ * and queues it for that thread.
+ *
+ * Each connection only lets a limited number of bytes wait to be written, any
+ * migrants sent past that are dropped rather than blocking the island, which
+ * fits how migration works anyway as a late or missing migrant doesn't matter.
+ *
+ * A migrant is sent as a frame of its length, the island it is for, its
+ * fitness and then its genome as written by the {@link GenomeCodec}.
+ * Creatures whose chromosomes only breed with their own type, like the
+ * primitive chromosomes, need a codec made with a prototype genome so the
+ * migrants arrive with the same types of chromosomes.
+ *
+ * @param <C>
+ *            type of creature
+ * @param <G>
+ *            type of gene
+ */
+public class SocketTransport<C extends Creature<C, G>, G extends Gene<G>> implements MigrationTransport<C> {
+
+	// island number and fitness
+	private static final int HEADER_BYTES = Integer.BYTES + Double.BYTES;
+
+	private static final int MAX_FRAME_BYTES = 1 << 24;
+
+	private static final int READ_BUFFER_BYTES = 1 << 16;
+
+	private final GenomeCodec<G> codec;
+
+	private final Function<Genome<G>, C> factory;
+
+	private final int firstIsland;
+
+	private final int islandCount;
+
+	// migrants that have arrived for each local island
+	private final ArrayList<ConcurrentLinkedQueue<Migrant<C>>> inboxes = new ArrayList<>();
+
+	private final Selector selector;
+
+	private final ServerSocketChannel server;
+
+	private final CopyOnWriteArrayList<Peer> peers = new CopyOnWriteArrayList<>();
+
+	// connections that still need to be registered by the network thread
+	private final ConcurrentLinkedQueue<Peer> unregistered = new ConcurrentLinkedQueue<>();
+
+	private final Thread thread;
+
+	private volatile boolean open = true;
+
+	private volatile int maxPendingBytes = 1 << 20;
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * creates a transport that listens on an open port of the loopback
+	 * address, this is useful for running several processes on one machine
+	 * or for testing in one process
+	 *
+	 * @param codec
+	 *            codec for the creatures' genomes
+	 * @param factory
+	 *            makes a creature out of a decoded genome
+	 * @param firstIsland
+	 *            number of the first island run by this process
+	 * @param localIslands
+	 *            how many islands this process runs
+	 * @param islandCount
+	 *            number of islands across every process
+	 * @throws IOException
+	 *             if the transport can't start listening
+	 * @see #getLocalAddress()
+	 */
+	public SocketTransport(GenomeCodec<G> codec, Function<Genome<G>, C> factory, int firstIsland, int localIslands,
+			int islandCount) throws IOException {
+		this(codec, factory, firstIsland, localIslands, islandCount,
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+	}
+
+	/**
+	 * creates a transport that listens on the given address
+	 *
+	 * @param codec
+	 *            codec for the creatures' genomes
+	 * @param factory
+	 *            makes a creature out of a decoded genome
+	 * @param firstIsland
+	 *            number of the first island run by this process
+	 * @param localIslands
+	 *            how many islands this process runs
+	 * @param islandCount
+	 *            number of islands across every process
+	 * @param address
+	 *            address to listen on
+	 * @throws IOException
+	 *             if the transport can't start listening
+	 */
+	public SocketTransport(GenomeCodec<G> codec, Function<Genome<G>, C> factory, int firstIsland, int localIslands,
+			int islandCount, InetSocketAddress address) throws IOException {
+		if (firstIsland < 0 || localIslands < 0 || firstIsland + localIslands > islandCount)
+			throw new IllegalArgumentException("Invalid local islands " + firstIsland + " to "
+					+ (firstIsland + localIslands - 1) + " of " + islandCount);
+
+		this.codec = codec;
+		this.factory = factory;
+		this.firstIsland = firstIsland;
+		this.islandCount = islandCount;
+		for (int i = 0; i < localIslands; i++) {
+			inboxes.add(new ConcurrentLinkedQueue<>());
+		}
+
+		selector = Selector.open();
+		server = ServerSocketChannel.open();
+		try {
+			server.bind(address);
+			server.configureBlocking(false);
+			server.register(selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			server.close();
+			selector.close();
+			throw e;
+		}
+
+		thread = new Thread(this::run, "migration-transport");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * gets the address this transport is listening on for other processes to
+	 * connect to
+	 *
+	 * @return the listening address
+	 * @throws IOException
+	 *             if the address can't be read
+	 */
+	public InetSocketAddress getLocalAddress() throws IOException {
+		return (InetSocketAddress) server.getLocalAddress();
+	}
+
+	/**
+	 * connects to the transport of another process, migrants for the islands
+	 * it runs will be sent over the connection
+	 *
+	 * @param address
+	 *            address the other transport is listening on
+	 * @param firstIsland
+	 *            number of the first island the other process runs
+	 * @param islands
+	 *            how many islands the other process runs
+	 * @throws IOException
+	 *             if the connection can't be made
+	 */
+	public void connect(InetSocketAddress address, int firstIsland, int islands) throws IOException {
+		SocketChannel channel = SocketChannel.open(address);
+		try {
+			channel.configureBlocking(false);
+			channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+
+		// the network thread registers it so this doesn't block on the
+		// selector
+		Peer peer = new Peer(channel, firstIsland, islands);
+		peers.add(peer);
+		unregistered.add(peer);
+		selector.wakeup();
+	}
+
+	/**
+	 * sets how many bytes can wait to be written to a connection before
+	 * migrants sent over it are dropped
+	 *
+	 * @param maxPendingBytes
+	 *            bytes allowed to wait for each connection
+	 */
+	public void setMaxPendingBytes(int maxPendingBytes) {
+		if (maxPendingBytes <= 0)
+			throw new IllegalArgumentException("Max pending bytes must be positive (" + maxPendingBytes + ")");
+
+		this.maxPendingBytes = maxPendingBytes;
+	}
+
+	/**
+	 * gets how many migrants have been dropped, either because a connection
+	 * was backed up or because there was nowhere to send them
+	 *
+	 * @return number of dropped migrants
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	@Override
+	public int getFirstIsland() {
+		return firstIsland;
+	}
+
+	@Override
+	public int getIslandCount() {
+		return islandCount;
+	}
+
+	@Override
+	public boolean send(int island, Migrant<C> migrant) {
+		// local islands don't need to go over the network
+		if (isLocal(island))
+			return inboxes.get(island - firstIsland).offer(migrant);
+
+		Peer peer = route(island);
+		if (peer == null || peer.closed) {
+			dropped.incrementAndGet();
+			return false;
+		}
+
+		Genome<G> genome = migrant.getCreature().getGenome();
+		int frame = Integer.BYTES + HEADER_BYTES + codec.encodedSize(genome);
+
+		// drop the migrant if the connection is backed up
+		if (peer.pendingBytes.addAndGet(frame) > maxPendingBytes) {
+			peer.pendingBytes.addAndGet(-frame);
+			dropped.incrementAndGet();
+			return false;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(frame);
+		buffer.putInt(frame - Integer.BYTES);
+		buffer.putInt(island);
+		buffer.putDouble(migrant.getFitness());
+		codec.encode(genome, buffer);
+		buffer.flip();
+
+		peer.outbound.add(buffer);
+		selector.wakeup();
+		return true;
+	}
+
+	@Override
+	public Migrant<C> poll(int island) {
+		return inboxes.get(island - firstIsland).poll();
+	}
+
+	/**
+	 * stops the network thread and closes every connection, any migrants
+	 * still waiting to be written are lost
+	 */
+	@Override
+	public void close() {
+		open = false;
+		selector.wakeup();
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private boolean isLocal(int island) {
+		return island >= firstIsland && island < firstIsland + inboxes.size();
+	}
+
+	private Peer route(int island) {
+		for (Peer peer : peers) {
+			if (island >= peer.firstIsland && island < peer.firstIsland + peer.islands)
+				return peer;
+		}
+		return null;
+	}
+
+	/**
+	 * the loop run by the network thread
+	 */
+	private void run() {
+		try {
+			while (open) {
+				selector.select();
+
+				Peer peer;
+				while ((peer = unregistered.poll()) != null) {
+					peer.key = peer.channel.register(selector, 0, peer);
+				}
+
+				// only ask to write to connections that have something to
+				// write
+				for (Peer p : peers) {
+					if (p.key != null && p.key.isValid() && !p.outbound.isEmpty())
+						p.key.interestOps(SelectionKey.OP_WRITE);
+				}
+
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					try {
+						if (!key.isValid())
+							continue;
+						if (key.isAcceptable())
+							accept();
+						else if (key.isReadable())
+							read(key);
+						else if (key.isWritable())
+							write((Peer) key.attachment());
+					} catch (IOException | RuntimeException e) {
+						// a broken or misbehaving connection is closed, the
+						// others carry on
+						disconnect(key);
+					}
+				}
+			}
+		} catch (IOException e) {
+			// the selector itself failed, nothing more can be sent
+		} finally {
+			for (Peer peer : peers) {
+				peer.closed = true;
+			}
+			for (SelectionKey key : selector.keys()) {
+				closeQuietly(key);
+			}
+			closeQuietly(server);
+			closeQuietly(selector);
+		}
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel = server.accept();
+		if (channel == null)
+			return;
+
+		channel.configureBlocking(false);
+		channel.register(selector, SelectionKey.OP_READ, ByteBuffer.allocate(READ_BUFFER_BYTES));
+	}
+
+	/**
+	 * reads what has arrived on an incoming connection and hands out every
+	 * complete frame
+	 */
+	private void read(SelectionKey key) throws IOException {
+		SocketChannel channel = (SocketChannel) key.channel();
+		ByteBuffer buffer = (ByteBuffer) key.attachment();
+
+		if (channel.read(buffer) < 0) {
+			disconnect(key);
+			return;
+		}
+
+		buffer.flip();
+		while (buffer.remaining() >= Integer.BYTES) {
+			int length = buffer.getInt(buffer.position());
+			if (length < HEADER_BYTES || length > MAX_FRAME_BYTES)
+				throw new IOException("Invalid frame length " + length);
+			if (buffer.remaining() < Integer.BYTES + length)
+				break;
+
+			// limit the buffer to the frame so a bad genome can't read past it
+			int limit = buffer.limit();
+			int end = buffer.position() + Integer.BYTES + length;
+			buffer.position(buffer.position() + Integer.BYTES);
+			buffer.limit(end);
+
+			int island = buffer.getInt();
+			double fitness = buffer.getDouble();
+			Genome<G> genome = codec.decode(buffer);
+
+			buffer.limit(limit);
+			buffer.position(end);
+
+			if (isLocal(island))
+				inboxes.get(island - firstIsland).add(new Migrant<>(factory.apply(genome), fitness));
+			else
+				dropped.incrementAndGet();
+		}
+		buffer.compact();
+
+		// make room if the next frame is bigger than the buffer
+		if (!buffer.hasRemaining()) {
+			ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+			buffer.flip();
+			larger.put(buffer);
+			key.attach(larger);
+		}
+	}
+
+	/**
+	 * writes as much as the connection will take, leaving the rest for when
+	 * it is ready again
+	 */
+	private void write(Peer peer) throws IOException {
+		ByteBuffer buffer;
+		while ((buffer = peer.outbound.peek()) != null) {
+			peer.channel.write(buffer);
+			if (buffer.hasRemaining())
+				return;
+
+			peer.outbound.poll();
+			peer.pendingBytes.addAndGet(-buffer.capacity());
+		}
+		peer.key.interestOps(0);
+	}
+
+	private void disconnect(SelectionKey key) {
+		if (key.attachment() instanceof Peer) {
+			Peer peer = (Peer) key.attachment();
+			peer.closed = true;
+			peer.outbound.clear();
+		}
+		closeQuietly(key);
+	}
+
+	private static void closeQuietly(SelectionKey key) {
+		key.cancel();
+		closeQuietly(key.channel());
+	}
+
+	private static void closeQuietly(Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			// nothing else can be done with it
+		}
+	}
+
+	/**
+	 * an outgoing connection to the process running a range of islands
+	 */
+	private static final class Peer {
+
+		private final SocketChannel channel;
+
+		private final int firstIsland;
+
+		private final int islands;
+
+		private final ConcurrentLinkedQueue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger pendingBytes = new AtomicInteger();
+
+		private SelectionKey key;
+
+		private volatile boolean closed = false;
+
+		private Peer(SocketChannel channel, int firstIsland, int islands) {
+			this.channel = channel;
+			this.firstIsland = firstIsland;
+			this.islands = islands;
+		}
+	}
+}
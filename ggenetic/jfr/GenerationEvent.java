@@ -0,0 +1,66 @@
+package ggenetic.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * flight recorder event for one generation of a population, it holds the same
+ * measurements as {@link ggenetic.creature.GenerationStats}.
+ */
+@Name("ggenetic.Generation")
+@Label("Generation")
+@Category("GGenetic")
+@Description("Measurements of one generation of a population")
+@StackTrace(false)
+public class GenerationEvent extends jdk.jfr.Event {
+
+	@Label("Generation")
+	long generation;
+
+	@Label("Population Size")
+	int populationSize;
+
+	@Label("Evaluation Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long evaluationTime;
+
+	@Label("Selection Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long selectionTime;
+
+	@Label("Cull Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long cullTime;
+
+	@Label("Reproduction Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long reproductionTime;
+
+	@Label("Evaluations")
+	int evaluations;
+
+	@Label("Evaluations Per Second")
+	double evaluationsPerSecond;
+
+	@Label("Cache Hit Rate")
+	double cacheHitRate;
+
+	@Label("Allocated")
+	@Description("Bytes allocated by the thread running the population, -1 if unknown")
+	@DataAmount
+	long allocated;
+
+	@Label("Best Fitness")
+	double bestFitness;
+
+	@Label("Mean Fitness")
+	double meanFitness;
+
+	@Label("Fitness Standard Deviation")
+	double fitnessStandardDeviation;
+}
@@ -0,0 +1,35 @@
+package ggenetic.jfr;
+
+import ggenetic.creature.GenerationListener;
+import ggenetic.creature.GenerationStats;
+
+/**
+ * commits a {@link GenerationEvent} for each generation while a flight
+ * recording with the event enabled is running, otherwise it does nothing.
+ * This package needs a JVM with the jdk.jfr module, which is Java 11 or
+ * later or Java 8 from update 262.
+ */
+public class GenerationEventListener implements GenerationListener {
+
+	@Override
+	public void generationFinished(GenerationStats stats) {
+		GenerationEvent event = new GenerationEvent();
+		if (!event.isEnabled())
+			return;
+
+		event.generation = stats.getGeneration();
+		event.populationSize = stats.getPopulationSize();
+		event.evaluationTime = stats.getEvaluationNanos();
+		event.selectionTime = stats.getSelectionNanos();
+		event.cullTime = stats.getCullNanos();
+		event.reproductionTime = stats.getReproductionNanos();
+		event.evaluations = stats.getEvaluations();
+		event.evaluationsPerSecond = stats.getEvaluationsPerSecond();
+		event.cacheHitRate = stats.getCacheHitRate();
+		event.allocated = stats.getAllocatedBytes();
+		event.bestFitness = stats.getBestFitness();
+		event.meanFitness = stats.getMeanFitness();
+		event.fitnessStandardDeviation = stats.getFitnessStandardDeviation();
+		event.commit();
+	}
+}
@@ -0,0 +1,34 @@
+package ggenetic.random;
+
+import java.util.SplittableRandom;
+
+/**
+ * gives each thread its own random number generator, each one is split from a
+ * single shared generator the first time the thread asks for one so there is
+ * no contention after that. This is used whenever a random number generator
+ * isn't given, to get reproducible results pass a seeded generator to the
+ * methods that accept one instead.
+ */
+public final class ThreadRandom {
+
+	// generator that all of the thread generators are split from
+	private static final SplittableRandom seeder = new SplittableRandom();
+
+	private static final ThreadLocal<SplittableRandom> local = ThreadLocal.withInitial(ThreadRandom::split);
+
+	private ThreadRandom() {}
+
+	/**
+	 * gets the random number generator for the current thread, the generator
+	 * should not be shared with other threads
+	 * 
+	 * @return the current thread's random number generator
+	 */
+	public static SplittableRandom current() {
+		return local.get();
+	}
+
+	private static synchronized SplittableRandom split() {
+		return seeder.split();
+	}
+}
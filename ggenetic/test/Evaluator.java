@@ -1,57 +1,33 @@
 package ggenetic.test;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 
-import ggenetic.genes.Chromosome;
-
 public class Evaluator {
+	// compiled programs shared by every evaluation
+	private final static SwapCompiler compiler = new SwapCompiler(4096);
+
 	private final static int[] tester = new int[] { 10, 1, 9, 2, 6, 3, 7, 4, 8, 5};
 	private final static int[] sorted = new int[] { 18, 87, 380, 433, 604, 633, 686, 789, 812, 990 };
 
 	public static int[] useAlgorithm(SortCreature c) {
 		int[] copy = Arrays.copyOf(tester, 10);
-
-		Chromosome<SwapGene> chrome = c.getGenome().getChromosome(0);
-
-		int index = 0;
-
-		boolean negated = false;
-
-		// go through all of the genes in the creature
-		for (int i = 0; i < 30; i++) {
-			// check if the index should be looped back
-			if (index >= copy.length - 1 || index < 0)
-				index = 0;
-
-			// get the two numbers to compare
-			int a = copy[index];
-			int b = copy[index + 1];
-
-			// get the next command by the genes from the creature
-			int command = chrome.getGene(i).execute(negated, a, b);
-
-			// execute the command
-			negated = false;
-			switch (command) {
-			case SwapGene.Nothing:
-				break;
-			case SwapGene.Swap:
-				copy[index] = b;
-				copy[index + 1] = a;
-				break;
-			case SwapGene.NegateNext:
-				negated = true;
-				break;
-			default:
-				// this is for the goto option
-				index = command;
-			}
-		}
-
+		runAlgorithm(c, copy);
 		return copy;
 	}
 
+	/**
+	 * runs the creature's algorithm on the given array in place, the
+	 * algorithm is compiled the first time it is run and the compiled program
+	 * is reused while the creature's chromosome stays the same
+	 * 
+	 * @see SwapProgram
+	 */
+	private static void runAlgorithm(SortCreature c, int[] copy) {
+		compiler.compile(c.getGenome().getChromosome(0)).run(copy);
+	}
+
 	public static double getNegativeScore(int[] copy) {
 		// score is negative as for minimization of fitness
 		double distance = 0;
@@ -73,4 +49,18 @@ public class Evaluator {
 	public static double evaluate(SortCreature c) {
 		return getNegativeScore(useAlgorithm(c));
 	}
+
+	/**
+	 * evaluates a batch of creatures reusing one array for all of them
+	 * 
+	 * @see ggenetic.creature.BatchFitnessFunction
+	 */
+	public static void evaluateBatch(List<SortCreature> batch, double[] results, int offset) {
+		int[] copy = new int[tester.length];
+		for (int i = 0; i < batch.size(); i++) {
+			System.arraycopy(tester, 0, copy, 0, tester.length);
+			runAlgorithm(batch.get(i), copy);
+			results[offset + i] = getNegativeScore(copy);
+		}
+	}
 }
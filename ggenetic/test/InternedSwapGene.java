@@ -0,0 +1,95 @@
+package ggenetic.test;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import ggenetic.genes.ImmutableGene;
+
+/**
+ * an immutable version of {@link SwapGene}, there is only one instance of
+ * each of the 2800 possible genes so chromosomes of these genes are copied
+ * without making any new genes. It mutates exactly the same way as a
+ * {@link SwapGene}.
+ */
+public final class InternedSwapGene extends ImmutableGene<InternedSwapGene> {
+
+	// every gene by its packed values, the packed values are used as the id
+	private static final InternedSwapGene[] GENES = new InternedSwapGene[1 << 12];
+
+	static {
+		for (int bool = SwapGene.False; bool <= SwapGene.True; bool++) {
+			for (int command = SwapGene.GOTO; command <= SwapGene.Nothing; command++) {
+				for (int gotoP = 0; gotoP < 100; gotoP++) {
+					int packed = SwapGene.pack(bool, command, gotoP);
+					GENES[packed] = new InternedSwapGene(packed, bool, command, gotoP);
+				}
+			}
+		}
+	}
+
+	private final int bool;
+	private final int command;
+	private final int gotoP;
+
+	private InternedSwapGene(int packed, int bool, int command, int gotoP) {
+		super(packed);
+		this.bool = bool;
+		this.command = command;
+		this.gotoP = gotoP;
+	}
+
+	/**
+	 * gets the gene with the given values
+	 * 
+	 * @param bool
+	 *            condition of the gene
+	 * @param command
+	 *            command run when the condition is met
+	 * @param gotoP
+	 *            where to go for a goto command, from 0 to 99
+	 * @return the gene
+	 */
+	public static InternedSwapGene of(int bool, int command, int gotoP) {
+		if (bool < SwapGene.False || bool > SwapGene.True || command < SwapGene.GOTO || command > SwapGene.Nothing
+				|| gotoP < 0 || gotoP >= 100)
+			throw new IllegalArgumentException("Invalid swap gene " + bool + ", " + command + ", " + gotoP);
+
+		return GENES[SwapGene.pack(bool, command, gotoP)];
+	}
+
+	@Override
+	public InternedSwapGene mutated(double mutationSeverity, SplittableRandom random) {
+		return GENES[SwapGene.mutate(getId(), mutationSeverity, random)];
+	}
+
+	@Override
+	public InternedSwapGene randomCopy(SplittableRandom random) {
+		return GENES[SwapGene.random(random)];
+	}
+
+	@Override
+	public int encodedSize() {
+		return Short.BYTES;
+	}
+
+	@Override
+	public void encode(ByteBuffer buffer) {
+		buffer.putShort((short) getId());
+	}
+
+	@Override
+	public InternedSwapGene decodeCopy(ByteBuffer buffer) {
+		int packed = buffer.getShort() & 0xfff;
+		if (GENES[packed] == null)
+			throw new IllegalArgumentException("Invalid encoded swap gene " + packed);
+		return GENES[packed];
+	}
+
+	public int execute(boolean negated, int a, int b) {
+		return SwapGene.execute(bool, command, gotoP, negated, a, b);
+	}
+
+	public String toString() {
+		return SwapGene.toString(bool, command, gotoP);
+	}
+}
@@ -0,0 +1,110 @@
+package ggenetic.test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import ggenetic.creature.Creature;
+import ggenetic.genes.Chromosome;
+import ggenetic.genes.Genome;
+import ggenetic.genes.GenomeCodec;
+import ggenetic.genes.primitive.DoubleChromosome;
+import ggenetic.genes.primitive.DoubleGene;
+import ggenetic.island.Migrant;
+import ggenetic.island.SocketTransport;
+
+/**
+ * sends a creature made of a {@link DoubleChromosome} from one socket
+ * transport to another over the loopback address and breeds it with a
+ * creature of the receiving island, which only works if the migrant's
+ * chromosome came back as a DoubleChromosome
+ */
+public class MigrationTester {
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		SplittableRandom random = new SplittableRandom(1);
+		PointCreature seed = new PointCreature(random);
+
+		// the seed's genome tells the codec what type the chromosomes are
+		GenomeCodec<DoubleGene> codec = new GenomeCodec<>(new DoubleGene(0, -1, 1), seed.getGenome());
+
+		try (SocketTransport<PointCreature, DoubleGene> first = new SocketTransport<>(codec, PointCreature::new, 0, 1,
+				2);
+				SocketTransport<PointCreature, DoubleGene> second = new SocketTransport<>(codec, PointCreature::new,
+						1, 1, 2)) {
+			first.connect(second.getLocalAddress(), 1, 1);
+
+			PointCreature sent = new PointCreature(random);
+			first.send(1, new Migrant<>(sent, 1.5));
+
+			Migrant<PointCreature> received = second.poll(1);
+			for (int i = 0; received == null && i < 500; i++) {
+				Thread.sleep(10);
+				received = second.poll(1);
+			}
+			if (received == null)
+				throw new IllegalStateException("The migrant never arrived");
+
+			Genome<DoubleGene> genome = received.getCreature().getGenome();
+			System.out.println("received " + genome.getChromosome(0).getClass().getSimpleName() + " with fitness "
+					+ received.getFitness() + ", same genes: " + genome.equals(sent.getGenome()));
+
+			PointCreature child = new PointCreature(random).breed(received.getCreature(), .1, .5, random);
+			System.out.println("bred child " + child.getGenome().getChromosome(0));
+		}
+	}
+
+	/**
+	 * a point in a box from -1 to 1 stored in a single DoubleChromosome
+	 */
+	public static class PointCreature extends Creature<PointCreature, DoubleGene> {
+
+		private static final int DIMENSIONS = 8;
+
+		public PointCreature(SplittableRandom random) {
+			super(genome(new DoubleChromosome(DIMENSIONS, -1, 1, random)));
+		}
+
+		public PointCreature(Genome<DoubleGene> genome) {
+			super(genome);
+		}
+
+		private static Genome<DoubleGene> genome(Chromosome<DoubleGene> chromosome) {
+			ArrayList<Chromosome<DoubleGene>> chromosomes = new ArrayList<>();
+			chromosomes.add(chromosome);
+			return new Genome<>(chromosomes);
+		}
+
+		@Override
+		public PointCreature asexuallyReproduce(double mutationRate, double mutationSeverity) {
+			return new PointCreature(genes.copyWithMutation(mutationRate, mutationSeverity));
+		}
+
+		@Override
+		public PointCreature asexuallyReproduce(double mutationRate, double mutationSeverity,
+				SplittableRandom random) {
+			return new PointCreature(genes.copyWithMutation(mutationRate, mutationSeverity, random));
+		}
+
+		@Override
+		public PointCreature breed(PointCreature other, double mutationRate, double mutationSeverity) {
+			return new PointCreature(genes.breedWithMutation(other.genes, mutationRate, mutationSeverity));
+		}
+
+		@Override
+		public PointCreature breed(PointCreature other, double mutationRate, double mutationSeverity,
+				SplittableRandom random) {
+			return new PointCreature(genes.breedWithMutation(other.genes, mutationRate, mutationSeverity, random));
+		}
+
+		@Override
+		public PointCreature randomize() {
+			return new PointCreature(new SplittableRandom());
+		}
+
+		@Override
+		public PointCreature randomize(SplittableRandom random) {
+			return new PointCreature(random);
+		}
+	}
+}
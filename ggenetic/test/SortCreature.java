@@ -1,5 +1,7 @@
 package ggenetic.test;
 
+import java.util.SplittableRandom;
+
 import ggenetic.creature.Creature;
 import ggenetic.genes.Genome;
 
@@ -9,6 +11,10 @@ public class SortCreature extends Creature<SortCreature, SwapGene> {
 		super(new SwapGene(0, 0, 0), 1, 30);
 	}
 
+	public SortCreature(SplittableRandom random) {
+		super(new SwapGene(0, 0, 0), random, 1, 30);
+	}
+
 	public SortCreature(Genome<SwapGene> genome) {
 		super(genome);
 	}
@@ -19,19 +25,34 @@ public class SortCreature extends Creature<SortCreature, SwapGene> {
 		return results;
 	}
 
+	@Override
+	public SortCreature asexuallyReproduce(double mutationRate, double mutationSeverity, SplittableRandom random) {
+		SortCreature results = new SortCreature(genes.copyWithMutation(mutationRate, mutationSeverity, random));
+		return results;
+	}
+
 	@Override
 	public SortCreature breed(SortCreature other, double mutationRate, double mutationSeverity) {
 		SortCreature results = new SortCreature(genes.breedWithMutation(other.genes, mutationRate, mutationSeverity));
 		return results;
 	}
 
+	@Override
+	public SortCreature breed(SortCreature other, double mutationRate, double mutationSeverity,
+			SplittableRandom random) {
+		SortCreature results = new SortCreature(
+				genes.breedWithMutation(other.genes, mutationRate, mutationSeverity, random));
+		return results;
+	}
+
 	@Override
 	public SortCreature randomize() {
 		return new SortCreature();
 	}
 
-	public Genome<SwapGene> getGenome() {
-		return genes;
+	@Override
+	public SortCreature randomize(SplittableRandom random) {
+		return new SortCreature(random);
 	}
 
 }
@@ -0,0 +1,87 @@
+package ggenetic.test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ggenetic.genes.Chromosome;
+
+/**
+ * compiles chromosomes of {@link SwapGene}s into {@link SwapProgram}s and
+ * caches them by the chromosome's fingerprint, so a program that is evaluated
+ * again in a later generation isn't compiled again. Like the fitness cache
+ * this trusts the fingerprint, swap genes have a different 64 bit fingerprint
+ * for every gene so two different chromosomes only share one with a chance of
+ * about one in 2^64. A hit only costs a map lookup as the chromosome keeps its
+ * fingerprint up to date. When the cache is full the program that was used the
+ * longest time ago is forgotten.
+ */
+public class SwapCompiler {
+
+	private final int maximumSize;
+
+	private final LinkedHashMap<Long, SwapProgram> programs;
+
+	private long hits = 0;
+
+	private long misses = 0;
+
+	/**
+	 * creates a compiler that caches at most the given number of programs
+	 *
+	 * @param maximumSize
+	 *            how many compiled programs can be kept
+	 */
+	public SwapCompiler(int maximumSize) {
+		if (maximumSize <= 0)
+			throw new IllegalArgumentException("Cache size must be positive (" + maximumSize + ")");
+
+		this.maximumSize = maximumSize;
+
+		// keep the entries in access order so the eldest is the least
+		// recently used
+		programs = new LinkedHashMap<Long, SwapProgram>(16, .75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, SwapProgram> eldest) {
+				return size() > SwapCompiler.this.maximumSize;
+			}
+		};
+	}
+
+	/**
+	 * gets the compiled program of the chromosome, compiling it if it isn't
+	 * in the cache
+	 *
+	 * @param chromosome
+	 *            chromosome holding the program
+	 * @return the compiled program
+	 */
+	public SwapProgram compile(Chromosome<SwapGene> chromosome) {
+		long fingerprint = chromosome.fingerprint();
+		synchronized (this) {
+			SwapProgram results = programs.get(fingerprint);
+			if (results != null) {
+				hits++;
+				return results;
+			}
+			misses++;
+		}
+
+		// compile outside of the lock, if two threads compile the same program
+		// at once either one is fine to keep
+		SwapProgram results = SwapProgram.compile(chromosome);
+		synchronized (this) {
+			programs.put(fingerprint, results);
+		}
+		return results;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+}
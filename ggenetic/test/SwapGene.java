@@ -1,8 +1,11 @@
 package ggenetic.test;
 
-import java.util.Random;
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
 
+import ggenetic.genes.Fingerprints;
 import ggenetic.genes.Gene;
+import ggenetic.random.ThreadRandom;
 
 public class SwapGene extends Gene<SwapGene> {
 
@@ -34,9 +37,32 @@ public class SwapGene extends Gene<SwapGene> {
 		return new SwapGene(bool, command, gotoP);
 	}
 
+	@Override
+	public void copyFrom(SwapGene other) {
+		bool = other.bool;
+		command = other.command;
+		gotoP = other.gotoP;
+	}
+
 	@Override
 	public void mutate(double mutationSeverity) {
-		Random r = new Random();
+		mutate(mutationSeverity, ThreadRandom.current());
+	}
+
+	@Override
+	public void mutate(double mutationSeverity, SplittableRandom r) {
+		unpack(mutate(packed(), mutationSeverity, r));
+	}
+
+	/**
+	 * mutates the packed values of a gene
+	 * 
+	 * @see #pack(int, int, int)
+	 */
+	static int mutate(int packed, double mutationSeverity, SplittableRandom r) {
+		int bool = bool(packed);
+		int command = command(packed);
+		int gotoP = gotoP(packed);
 
 		int pick = r.nextInt(3);
 
@@ -54,18 +80,91 @@ public class SwapGene extends Gene<SwapGene> {
 
 		// check for a strong mutation
 		if (mutationSeverity > .8)
-			randomize();
+			return random(r);
+
+		return pack(bool, command, gotoP);
+	}
+
+	/**
+	 * picks random packed values for a gene
+	 */
+	static int random(SplittableRandom r) {
+		int bool = r.nextInt(7) - 3;
+		int command = r.nextInt(4) - 3;
+		int gotoP = r.nextInt(100);
+		return pack(bool, command, gotoP);
+	}
+
+	/**
+	 * packs the values of a gene into 12 bits, 3 for the condition, 2 for the
+	 * command and 7 for the goto
+	 */
+	static int pack(int bool, int command, int gotoP) {
+		return (bool + 3) | (command + 3) << 3 | gotoP << 5;
+	}
+
+	static int bool(int packed) {
+		return (packed & 0x7) - 3;
+	}
+
+	static int command(int packed) {
+		return (packed >> 3 & 0x3) - 3;
+	}
+
+	static int gotoP(int packed) {
+		return packed >> 5 & 0x7f;
+	}
+
+	/**
+	 * makes a gene from its packed values
+	 */
+	static SwapGene fromPacked(int packed) {
+		return new SwapGene(bool(packed), command(packed), gotoP(packed));
+	}
+
+	int packed() {
+		return pack(bool, command, gotoP);
+	}
+
+	private void unpack(int packed) {
+		bool = bool(packed);
+		command = command(packed);
+		gotoP = gotoP(packed);
 	}
 
 	@Override
 	public void randomize() {
-		Random r = new Random();
-		bool = r.nextInt(7) - 3;
-		command = r.nextInt(4) - 3;
-		gotoP = r.nextInt(100);
+		randomize(ThreadRandom.current());
+	}
+
+	@Override
+	public void randomize(SplittableRandom r) {
+		unpack(random(r));
+	}
+
+	@Override
+	public int encodedSize() {
+		return Short.BYTES;
+	}
+
+	@Override
+	public void encode(ByteBuffer buffer) {
+		buffer.putShort((short) packed());
+	}
+
+	@Override
+	public void decode(ByteBuffer buffer) {
+		unpack(buffer.getShort());
 	}
 
 	public int execute(boolean negated, int a, int b) {
+		return execute(bool, command, gotoP, negated, a, b);
+	}
+
+	/**
+	 * runs the step of a gene with the given values on two numbers
+	 */
+	static int execute(int bool, int command, int gotoP, boolean negated, int a, int b) {
 		// check if the condition is met
 		boolean results = false;
 		switch (bool) {
@@ -109,6 +208,13 @@ public class SwapGene extends Gene<SwapGene> {
 	}
 
 	public String toString() {
+		return toString(bool, command, gotoP);
+	}
+
+	/**
+	 * describes a gene with the given values
+	 */
+	static String toString(int bool, int command, int gotoP) {
 		String results = "";
 		switch (bool) {
 		case False:
@@ -155,6 +261,29 @@ public class SwapGene extends Gene<SwapGene> {
 
 	@Override
 	public int hashCode() {
+		return hashCode(bool, command, gotoP);
+	}
+
+	/**
+	 * the packed values are different for every gene so the fingerprints are
+	 * too, unlike the hash codes
+	 */
+	@Override
+	public long fingerprint() {
+		return fingerprint(packed());
+	}
+
+	/**
+	 * gives the fingerprint of the gene with the given packed values
+	 */
+	static long fingerprint(int packed) {
+		return Fingerprints.mix(packed);
+	}
+
+	/**
+	 * gives the hash code of a gene with the given values
+	 */
+	static int hashCode(int bool, int command, int gotoP) {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + bool;
@@ -0,0 +1,51 @@
+package ggenetic.test;
+
+import java.util.SplittableRandom;
+
+import ggenetic.genes.GeneCodec;
+
+/**
+ * packs a {@link SwapGene} into 12 bits, 3 for the condition, 2 for the
+ * command and 7 for the goto. Mutating and fingerprinting work on the packed
+ * bits and give the same results as the gene would.
+ */
+public class SwapGeneCodec implements GeneCodec<SwapGene> {
+
+	@Override
+	public int bits() {
+		return 12;
+	}
+
+	@Override
+	public long pack(SwapGene gene) {
+		return gene.packed();
+	}
+
+	@Override
+	public SwapGene unpack(long bits) {
+		return SwapGene.fromPacked((int) bits);
+	}
+
+	@Override
+	public long mutate(long bits, double mutationSeverity, SplittableRandom random) {
+		return SwapGene.mutate((int) bits, mutationSeverity, random);
+	}
+
+	@Override
+	public long fingerprint(long bits) {
+		return SwapGene.fingerprint((int) bits);
+	}
+
+	/**
+	 * all swap gene codecs pack the same way
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof SwapGeneCodec;
+	}
+
+	@Override
+	public int hashCode() {
+		return SwapGeneCodec.class.hashCode();
+	}
+}
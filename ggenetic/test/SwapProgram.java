@@ -0,0 +1,142 @@
+package ggenetic.test;
+
+import java.util.Arrays;
+
+import ggenetic.genes.Chromosome;
+
+/**
+ * the program in a chromosome of {@link SwapGene}s compiled into a flat array
+ * of instructions so it can be run without looking at the genes. Each
+ * instruction holds its condition, what it does and where it jumps to in one
+ * int, and genes that can never do anything are left out unless they are
+ * needed to clear a negation. A program is meant to be compiled once and run
+ * on many arrays.
+ */
+public final class SwapProgram {
+
+	private static final int NOTHING = 0;
+
+	private static final int SWAP = 1;
+
+	private static final int NEGATE = 2;
+
+	private static final int JUMP = 3;
+
+	// 3 bits for the condition, 2 for the action and the rest for the jump
+	private final int[] instructions;
+
+	private SwapProgram(int[] instructions) {
+		this.instructions = instructions;
+	}
+
+	/**
+	 * compiles the program in the chromosome
+	 *
+	 * @param chromosome
+	 *            chromosome holding the program
+	 * @return the compiled program
+	 */
+	public static SwapProgram compile(Chromosome<SwapGene> chromosome) {
+		int[] instructions = new int[chromosome.size()];
+		int size = 0;
+		boolean afterNegate = false;
+		for (int i = 0; i < chromosome.size(); i++) {
+			int packed = chromosome.getGene(i).packed();
+			int command = SwapGene.command(packed);
+			int gotoP = SwapGene.gotoP(packed);
+
+			// a goto to 0 gives the same value as doing nothing so the
+			// interpreter treats it as nothing
+			int action;
+			if (command == SwapGene.Swap)
+				action = SWAP;
+			else if (command == SwapGene.NegateNext)
+				action = NEGATE;
+			else if (command == SwapGene.GOTO && gotoP != SwapGene.Nothing)
+				action = JUMP;
+			else
+				action = NOTHING;
+
+			// a gene that does nothing only matters if it clears a negation
+			if (action == NOTHING && !afterNegate)
+				continue;
+
+			instructions[size++] = (SwapGene.bool(packed) + 3) | action << 3 | gotoP << 5;
+			afterNegate = action == NEGATE;
+		}
+		return new SwapProgram(Arrays.copyOf(instructions, size));
+	}
+
+	/**
+	 * runs the program on the array in place, this does the same as running
+	 * the genes in order
+	 *
+	 * @param array
+	 *            array to run on, it needs at least two numbers
+	 */
+	public void run(int[] array) {
+		if (array.length < 2)
+			throw new IllegalArgumentException("Array must have at least two numbers (" + array.length + ")");
+
+		int index = 0;
+		boolean negated = false;
+		for (int instruction : instructions) {
+			int a = array[index];
+			int b = array[index + 1];
+
+			boolean results;
+			switch (instruction & 0x7) {
+			case SwapGene.LessOrEqual + 3:
+				results = a <= b;
+				break;
+			case SwapGene.Less + 3:
+				results = a < b;
+				break;
+			case SwapGene.Equal + 3:
+				results = a == b;
+				break;
+			case SwapGene.Greater + 3:
+				results = a > b;
+				break;
+			case SwapGene.GreaterOrEqual + 3:
+				results = a >= b;
+				break;
+			case SwapGene.True + 3:
+				results = true;
+				break;
+			default:
+				results = false;
+			}
+
+			// the negation only lasts for one instruction
+			boolean wasNegated = negated;
+			negated = false;
+			if (results == wasNegated)
+				continue;
+
+			switch (instruction >> 3 & 0x3) {
+			case SWAP:
+				array[index] = b;
+				array[index + 1] = a;
+				break;
+			case NEGATE:
+				negated = true;
+				break;
+			case JUMP:
+				// loop back straight away instead of before the next step
+				index = instruction >> 5;
+				if (index >= array.length - 1)
+					index = 0;
+			}
+		}
+	}
+
+	/**
+	 * gets how many instructions are left after compiling
+	 *
+	 * @return number of instructions
+	 */
+	public int size() {
+		return instructions.length;
+	}
+}
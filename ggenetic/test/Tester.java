@@ -14,9 +14,13 @@ public class Tester {
 		p.setMutationRate(.1);
 		p.setMutationSeverity(-7);
 
+		// the measurements of each generation are only printed when asked for
+		if (Boolean.getBoolean("ggenetic.stats"))
+			p.addGenerationListener(System.out::println);
+
 		for (int i = 0; i < 2000; i++) {
 			System.out.println("Generation: " + i);
-			p.computeFitnessValues(Evaluator::evaluate);
+			p.computeFitnessScores(Evaluator::evaluateBatch);
 			System.out.println(p.getBestCreature());
 			System.out.println("fitness: " + -p.getBestFitness());
 			if (i == 1999)
@@ -0,0 +1,116 @@
+package ggenetic.genes.primitive;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * the kernels written with the incubating vector API, this needs JDK 16 or
+ * newer and --add-modules jdk.incubator.vector both to compile and to run.
+ * {@link Kernels} only loads this if it can, so it is never referenced
+ * directly. Each kernel runs whole vectors of the preferred size for the
+ * hardware and finishes what is left with the scalar loop.
+ *
+ * The lanes of a vector never cross a mask long as the vector sizes are
+ * powers of two no bigger than 64, so the mask of a vector is the mask long
+ * shifted down to its first lane. The lane masks are made by shifting that
+ * long by each lane's number and comparing instead of with
+ * VectorMask.fromLong, which isn't an intrinsic on older JDKs and makes the
+ * vectors get boxed.
+ */
+final class VectorKernels implements Kernels.Vectorized {
+
+	private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+	private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+	// the number of each lane, for picking a lane's bit out of a mask
+	private static final LongVector LONG_LANES = LongVector.zero(LONGS).addIndex(1);
+
+	private static final IntVector INT_LANES = IntVector.zero(INTS).addIndex(1);
+
+	VectorKernels() {
+		// without real vectors this would only be slower than the scalar loops
+		if (DOUBLES.length() < 2)
+			throw new UnsupportedOperationException("No vector support for doubles");
+		// the int masks are made from 32 bits at a time
+		if (INTS.length() > Integer.SIZE || LONGS.length() != DOUBLES.length())
+			throw new UnsupportedOperationException("Unsupported vector sizes");
+	}
+
+	/**
+	 * makes the mask for the lanes of a double vector, lane j is set if bit j
+	 * of the bits is set
+	 */
+	private static VectorMask<Double> doubleMask(long bits) {
+		return LongVector.broadcast(LONGS, bits).lanewise(VectorOperators.LSHR, LONG_LANES).and(1L)
+				.compare(VectorOperators.NE, 0).cast(DOUBLES);
+	}
+
+	private static VectorMask<Integer> intMask(long bits) {
+		return IntVector.broadcast(INTS, (int) bits).lanewise(VectorOperators.LSHR, INT_LANES).and(1)
+				.compare(VectorOperators.NE, 0);
+	}
+
+	@Override
+	public void blend(double[] a, double[] b, long[] masks, double[] out, int length) {
+		int i = 0;
+		for (int end = DOUBLES.loopBound(length); i < end; i += DOUBLES.length()) {
+			VectorMask<Double> select = doubleMask(masks[i >>> 6] >>> i);
+			DoubleVector.fromArray(DOUBLES, b, i).blend(DoubleVector.fromArray(DOUBLES, a, i), select)
+					.intoArray(out, i);
+		}
+		Kernels.blend(a, b, masks, out, i, length);
+	}
+
+	@Override
+	public void blend(int[] a, int[] b, long[] masks, int[] out, int length) {
+		int i = 0;
+		for (int end = INTS.loopBound(length); i < end; i += INTS.length()) {
+			VectorMask<Integer> select = intMask(masks[i >>> 6] >>> i);
+			IntVector.fromArray(INTS, b, i).blend(IntVector.fromArray(INTS, a, i), select).intoArray(out, i);
+		}
+		Kernels.blend(a, b, masks, out, i, length);
+	}
+
+	@Override
+	public void blend(long[] a, long[] b, long[] masks, long[] out, int words) {
+		int w = 0;
+		for (int end = LONGS.loopBound(words); w < end; w += LONGS.length()) {
+			// (b & ~masks) | (a & masks)
+			LongVector.fromArray(LONGS, b, w)
+					.lanewise(VectorOperators.BITWISE_BLEND, LongVector.fromArray(LONGS, a, w),
+							LongVector.fromArray(LONGS, masks, w))
+					.intoArray(out, w);
+		}
+		Kernels.blend(a, b, masks, out, w, words);
+	}
+
+	@Override
+	public void addClamped(double[] values, int offset, double[] steps, long mask, double min, double max,
+			int count) {
+		int j = 0;
+		for (int end = DOUBLES.loopBound(count); j < end; j += DOUBLES.length()) {
+			VectorMask<Double> select = doubleMask(mask >>> j);
+			DoubleVector value = DoubleVector.fromArray(DOUBLES, values, offset + j);
+			DoubleVector mutated = value.add(DoubleVector.fromArray(DOUBLES, steps, j)).min(max).max(min);
+			value.blend(mutated, select).intoArray(values, offset + j);
+		}
+		Kernels.addClamped(values, offset, steps, mask, min, max, j, count);
+	}
+
+	@Override
+	public void flip(long[] words, long[] flips, int count) {
+		int w = 0;
+		for (int end = LONGS.loopBound(count); w < end; w += LONGS.length()) {
+			LongVector.fromArray(LONGS, words, w).lanewise(VectorOperators.XOR, LongVector.fromArray(LONGS, flips, w))
+					.intoArray(words, w);
+		}
+		Kernels.flip(words, flips, w, count);
+	}
+}